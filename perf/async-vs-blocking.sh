@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Compares the blocking read endpoints with their /api/async counterparts under high
+# concurrency. Needs wrk (https://github.com/wg/wrk) and a running application with data.
+#
+#   perf/async-vs-blocking.sh [base-url] [connections] [duration]
+#
+# Raise the open-file limit first (ulimit -n 65535): every connection is a socket on both ends.
+set -euo pipefail
+
+BASE_URL=${1:-http://localhost:8080}
+CONNECTIONS=${2:-5000}
+DURATION=${3:-60s}
+THREADS=${THREADS:-8}
+CUSTOMER_ID=${CUSTOMER_ID:-1}
+
+run() {
+  local label=$1 path=$2
+  echo "=== ${label}: ${path}"
+  wrk -t"${THREADS}" -c"${CONNECTIONS}" -d"${DURATION}" --latency --timeout 30s "${BASE_URL}${path}"
+  echo
+}
+
+for path in "/customers/${CUSTOMER_ID}" "/customers?page=0&size=20" "/customers/cities" "/customers/countries"; do
+  run blocking "/api${path}"
+  run async "/api/async${path}"
+done
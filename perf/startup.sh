@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request: from JVM launch until GET /api/customers/countries answers.
+# Compares the default profile, the prod profile, and the prod profile with an AppCDS archive.
+# Needs a reachable database (the usual spring.datasource.* settings, e.g. as SPRING_DATASOURCE_*
+# environment variables) and, for the CDS run, a JDK 13+ runtime.
+#
+#   perf/startup.sh [runs]
+#
+# The fat jar is unpacked onto a plain classpath first: CDS cannot archive classes loaded from
+# nested jars, and the unpacked layout starts faster on its own.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8081}
+JAVA=${JAVA:-java}
+JAVA_OPTS=${JAVA_OPTS:-}
+MAIN_CLASS=com.example.customer_management_system.CustomerManagementSystemApplication
+WORK_DIR=target/startup
+
+cd "$(dirname "$0")/.."
+./mvnw -q -DskipTests package
+rm -rf "${WORK_DIR}"
+mkdir -p "${WORK_DIR}/app"
+JAR=$(ls target/*.jar | grep -v '\.original$' | head -1)
+(cd "${WORK_DIR}/app" && jar -xf "../../../${JAR}")
+CLASSPATH="${WORK_DIR}/app/BOOT-INF/classes:$(ls "${WORK_DIR}"/app/BOOT-INF/lib/*.jar | tr '\n' ':')"
+
+now_ms() {
+  date +%s%3N
+}
+
+# Starts the application, waits for the first successful request and prints the elapsed time
+first_request_ms() {
+  local start pid
+  start=$(now_ms)
+  # shellcheck disable=SC2086
+  "${JAVA}" ${JAVA_OPTS} "$@" -cp "${CLASSPATH}" "${MAIN_CLASS}" \
+    --server.port="${PORT}" --management.server.port="${MANAGEMENT_PORT}" \
+    > "${WORK_DIR}/app.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:${PORT}/api/customers/countries"; do
+    if ! kill -0 "${pid}" 2> /dev/null; then
+      echo "Application exited, see ${WORK_DIR}/app.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  echo $(($(now_ms) - start))
+  # A normal shutdown, so that -XX:ArchiveClassesAtExit writes its archive
+  kill "${pid}"
+  wait "${pid}" || true
+}
+
+measure() {
+  local label=$1 total=0 ms
+  shift
+  printf '%-14s' "${label}"
+  for ((i = 0; i < RUNS; i++)); do
+    ms=$(first_request_ms "$@")
+    total=$((total + ms))
+    printf ' %6d' "${ms}"
+  done
+  printf '   avg %6d ms\n' $((total / RUNS))
+}
+
+measure default
+measure prod -Dspring.profiles.active=prod
+
+# Training run: the classes loaded up to the first request go into the archive
+first_request_ms -Dspring.profiles.active=prod -XX:ArchiveClassesAtExit="${WORK_DIR}/app.jsa" > /dev/null
+measure prod+appcds -Dspring.profiles.active=prod -XX:SharedArchiveFile="${WORK_DIR}/app.jsa"
@@ -0,0 +1,86 @@
+package com.example.customer_management_system.application;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Writes synthetic bulk-upload workbooks in the layout {@link BulkCustomerService} expects: a
+ * header row, then name, date of birth (yyyy-MM-dd) and NIC per row. Rows are streamed, so even
+ * 1M-row fixtures are generated in a small heap.
+ *
+ * <p>Usage: {@code BulkFixtureGenerator <rows> <output.xlsx>}
+ */
+public final class BulkFixtureGenerator {
+
+  private static final String[] FIRST_NAMES = {
+    "Aiden", "Liam", "Nimal", "Kamala", "Sunil", "Priya", "Ravi", "Amara", "Dilan", "Tharushi"
+  };
+  private static final String[] LAST_NAMES = {
+    "Perera", "Fernando", "Silva", "Dias", "James", "Jayasinghe", "Bandara", "Kumara"
+  };
+
+  private BulkFixtureGenerator() {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: BulkFixtureGenerator <rows> <output.xlsx>");
+      System.exit(1);
+    }
+    writeXlsx(Integer.parseInt(args[0]), Paths.get(args[1]));
+  }
+
+  /** Writes the fixture unless a file with that name already exists, and returns its path. */
+  public static Path xlsxFixture(int rows, Path directory) throws IOException {
+    Path file = directory.resolve("customers-" + rows + ".xlsx");
+    if (!Files.exists(file)) {
+      Files.createDirectories(directory);
+      writeXlsx(rows, file);
+    }
+    return file;
+  }
+
+  public static void writeXlsx(int rows, Path file) throws IOException {
+    Random random = new Random(rows);
+    SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+    try (OutputStream out = Files.newOutputStream(file)) {
+      Sheet sheet = workbook.createSheet("Customers");
+      Row header = sheet.createRow(0);
+      header.createCell(0).setCellValue("Name");
+      header.createCell(1).setCellValue("Date of Birth");
+      header.createCell(2).setCellValue("NIC Number");
+
+      for (int i = 1; i <= rows; i++) {
+        Row row = sheet.createRow(i);
+        row.createCell(0).setCellValue(name(random));
+        row.createCell(1).setCellValue(dateOfBirth(random).toString());
+        row.createCell(2).setCellValue(nicNumber(i));
+      }
+      workbook.write(out);
+    } finally {
+      workbook.dispose();
+    }
+  }
+
+  static String name(Random random) {
+    return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]
+        + " "
+        + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+  }
+
+  static LocalDate dateOfBirth(Random random) {
+    return LocalDate.of(1950, 1, 1).plusDays(random.nextInt(365 * 55));
+  }
+
+  static String nicNumber(int index) {
+    return String.valueOf(199000000000L + index);
+  }
+}
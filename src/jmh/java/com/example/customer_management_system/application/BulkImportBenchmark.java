@@ -0,0 +1,80 @@
+package com.example.customer_management_system.application;
+
+import com.example.customer_management_system.CustomerManagementSystemApplication;
+import com.example.customer_management_system.model.BulkUploadResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end bulk upload of a generated workbook into the embedded H2 database of the
+ * {@code test} profile. Each invocation starts from an empty customers table.
+ *
+ * <p>The 1M-row case needs a large heap while the workbook is parsed; run it explicitly with
+ * {@code -Djmh.args="BulkImportBenchmark -p rows=1000000 -jvmArgs -Xmx8g"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BulkImportBenchmark {
+
+  @Param({"10000", "100000"})
+  public int rows;
+
+  private ConfigurableApplicationContext context;
+  private BulkCustomerService bulkCustomerService;
+  private JdbcTemplate jdbcTemplate;
+  private MockMultipartFile upload;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Path fixture = BulkFixtureGenerator.xlsxFixture(rows, Paths.get("target", "bench-fixtures"));
+    upload =
+        new MockMultipartFile(
+            "file",
+            fixture.getFileName().toString(),
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+            Files.readAllBytes(fixture));
+
+    SpringApplication application = new SpringApplication(CustomerManagementSystemApplication.class);
+    application.setAdditionalProfiles("test");
+    context =
+        application.run(
+            "--server.port=0", "--management.server.port=0", "--bulk.processing.poll-interval=50");
+    bulkCustomerService = context.getBean(BulkCustomerService.class);
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+  }
+
+  @Setup(Level.Invocation)
+  public void clearCustomers() {
+    jdbcTemplate.update("DELETE FROM customers");
+  }
+
+  /** Measures from upload until a worker has finished the job. */
+  @Benchmark
+  public BulkUploadResponse importXlsx() throws InterruptedException {
+    String jobId = bulkCustomerService.handleBulkUpload(upload).getJobId();
+    BulkUploadResponse status = bulkCustomerService.getBulkUploadStatus(jobId);
+    while ("QUEUED".equals(status.getStatus()) || "PROCESSING".equals(status.getStatus())) {
+      Thread.sleep(50);
+      status = bulkCustomerService.getBulkUploadStatus(jobId);
+    }
+    return status;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+}
@@ -0,0 +1,124 @@
+package com.example.customer_management_system.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Row-level parsing costs of the bulk upload, measured per 1000 rows. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkParserBenchmark {
+
+  private static final int ROWS = 1000;
+
+  private BulkCustomerService bulkCustomerService;
+  private CustomerStagingBuffer stagingBuffer;
+  private Path workbookFile;
+  private List<List<String>> rows;
+  private List<String> dates;
+
+  @Setup
+  public void setUp() throws IOException {
+    bulkCustomerService =
+        new BulkCustomerService(
+            null, new SimpleMeterRegistry(), null, null, null, null, null, null, null, null, null,
+            null);
+    stagingBuffer = new CustomerStagingBuffer();
+
+    Random random = new Random(42);
+    rows = new ArrayList<>(ROWS);
+    dates = new ArrayList<>(ROWS);
+    String[] formats = {"%1$tY-%1$tm-%1$td", "%1$td/%1$tm/%1$tY", "%1$td-%1$tm-%1$tY"};
+    for (int i = 0; i < ROWS; i++) {
+      rows.add(
+          Arrays.asList(
+              BulkFixtureGenerator.name(random),
+              BulkFixtureGenerator.dateOfBirth(random).toString(),
+              BulkFixtureGenerator.nicNumber(i)));
+      dates.add(String.format(formats[i % formats.length], BulkFixtureGenerator.dateOfBirth(random)));
+    }
+
+    // The same rows as a workbook on disk, for the streaming reader
+    workbookFile = Files.createTempFile("bulk-parser-", ".xlsx");
+    try (XSSFWorkbook workbook = new XSSFWorkbook();
+        OutputStream out = Files.newOutputStream(workbookFile)) {
+      Sheet sheet = workbook.createSheet("Customers");
+      for (int i = 0; i < ROWS; i++) {
+        Row row = sheet.createRow(i);
+        for (int column = 0; column < rows.get(i).size(); column++) {
+          row.createCell(column).setCellValue(rows.get(i).get(column));
+        }
+      }
+      workbook.write(out);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(workbookFile);
+    stagingBuffer.close();
+  }
+
+  /** Parses and stages the rows into the off-heap buffer. */
+  @Benchmark
+  public void stageRow(Blackhole blackhole) {
+    stagingBuffer.clear();
+    for (List<String> row : rows) {
+      blackhole.consume(
+          bulkCustomerService.stageRow(row, BulkColumnMapping.POSITIONAL, null, stagingBuffer));
+    }
+  }
+
+  /** Materializes staged rows into entities, as the writer does for new customers. */
+  @Benchmark
+  public void toCustomer(Blackhole blackhole) {
+    if (stagingBuffer.size() == 0) {
+      stageRow(blackhole);
+    }
+    for (int row = 0; row < stagingBuffer.size(); row++) {
+      blackhole.consume(stagingBuffer.toCustomer(row));
+    }
+  }
+
+  /** Streams the workbook's rows off disk as cell text, without building a workbook. */
+  @Benchmark
+  public void readWorkbook(Blackhole blackhole) throws IOException {
+    BulkWorkbookReader.read(
+        workbookFile,
+        new BulkWorkbookReader.RowHandler() {
+          @Override
+          public void startSheet(int sheetIndex, String sheetName) {
+          }
+
+          @Override
+          public void row(int rowIndex, List<String> cells) {
+            blackhole.consume(cells.get(2));
+          }
+        });
+  }
+
+  /** Mixed formats, so most calls go through one or two failed patterns first. */
+  @Benchmark
+  public void parseDate(Blackhole blackhole) {
+    for (String date : dates) {
+      blackhole.consume(bulkCustomerService.parseDate(date));
+    }
+  }
+}
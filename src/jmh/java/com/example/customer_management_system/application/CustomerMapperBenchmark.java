@@ -0,0 +1,89 @@
+package com.example.customer_management_system.application;
+
+import com.example.customer_management_system.domain.entities.City;
+import com.example.customer_management_system.domain.entities.Country;
+import com.example.customer_management_system.domain.entities.Customer;
+import com.example.customer_management_system.domain.repository.CityRepository;
+import com.example.customer_management_system.domain.repository.CustomerRepository;
+import com.example.customer_management_system.model.AddressDTO;
+import com.example.customer_management_system.model.CustomerDTO;
+import com.example.customer_management_system.model.FamilyMemberDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO/entity mapping of a fully populated customer. Repositories are replaced with in-memory
+ * stubs, so the numbers cover mapping only, not the lookups it triggers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerMapperBenchmark {
+
+  private CustomerMapper customerMapper;
+  private CustomerDTO customerDTO;
+  private Customer customer;
+
+  @Setup
+  public void setUp() {
+    Country country = new Country();
+    country.setId(1L);
+    country.setName("Sri Lanka");
+    City city = new City();
+    city.setId(1L);
+    city.setName("Colombo");
+    city.setCountry(country);
+
+    customerMapper =
+        new CustomerMapper(
+            stub(CityRepository.class, Optional.of(city)), stub(CustomerRepository.class, Optional.empty()));
+
+    customerDTO = new CustomerDTO("Aiden James", LocalDate.of(1990, 4, 12), "199012345015");
+    customerDTO.setMobileNumbers(Arrays.asList("0709978775", "0771234567"));
+    customerDTO.setAddresses(
+        Arrays.asList(
+            new AddressDTO(null, "123 Mango Avenue", "House 5", 1L, null, null),
+            new AddressDTO(null, "12 Park Lane", "Suite 5", 1L, null, null)));
+    customerDTO.setFamilyMembers(
+        Arrays.asList(
+            new FamilyMemberDTO("Liam Dias", "199212345601", LocalDate.of(1992, 6, 15)),
+            new FamilyMemberDTO("Amara Dias", "199512345602", LocalDate.of(1995, 2, 3))));
+
+    customer = customerMapper.toEntity(customerDTO);
+  }
+
+  @Benchmark
+  public CustomerDTO toDTO() {
+    return customerMapper.toDTO(customer);
+  }
+
+  @Benchmark
+  public Customer updateEntity() {
+    Customer target = new Customer();
+    customerMapper.updateEntity(target, customerDTO);
+    return target;
+  }
+
+  /** Repository stub whose lookups all return {@code result}. */
+  @SuppressWarnings("unchecked")
+  private static <T> T stub(Class<T> repositoryType, Optional<?> result) {
+    return (T)
+        Proxy.newProxyInstance(
+            repositoryType.getClassLoader(),
+            new Class<?>[] {repositoryType},
+            (proxy, method, args) -> {
+              if (method.getReturnType() == Optional.class) {
+                return result;
+              }
+              throw new UnsupportedOperationException(method.getName());
+            });
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.customer_management_system.application;
+
+import com.example.customer_management_system.model.AddressDTO;
+import com.example.customer_management_system.model.CustomerDTO;
+import com.example.customer_management_system.model.FamilyMemberDTO;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a 1000-customer page in each format the API serves. The encoded size
+ * is printed once per format at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerPayloadBenchmark {
+
+  private static final int PAGE_SIZE = 1000;
+
+  @Param({"json", "smile", "cbor"})
+  public String format;
+
+  private ObjectMapper objectMapper;
+  private Page<CustomerDTO> page;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    switch (format) {
+      case "smile":
+        objectMapper = Jackson2ObjectMapperBuilder.smile().build();
+        break;
+      case "cbor":
+        objectMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        break;
+      default:
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    Random random = new Random(42);
+    List<CustomerDTO> customers = new ArrayList<>(PAGE_SIZE);
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      CustomerDTO customer =
+          new CustomerDTO(
+              BulkFixtureGenerator.name(random),
+              BulkFixtureGenerator.dateOfBirth(random),
+              BulkFixtureGenerator.nicNumber(i));
+      customer.setId((long) i + 1);
+      customer.setMobileNumbers(Arrays.asList("0709978775", "0771234567"));
+      customer.setAddresses(
+          Arrays.asList(new AddressDTO(1L, "123 Mango Avenue", "House 5", 1L, "Colombo", "Sri Lanka")));
+      customer.setFamilyMembers(
+          Arrays.asList(new FamilyMemberDTO("Liam Dias", "199212345601", LocalDate.of(1992, 6, 15))));
+      customer.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 30));
+      customer.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 9, 30));
+      customers.add(customer);
+    }
+    page = new PageImpl<>(customers, PageRequest.of(0, PAGE_SIZE), 100_000);
+    encoded = objectMapper.writeValueAsBytes(page);
+    System.out.printf("%n%s page of %d customers: %d bytes%n", format, PAGE_SIZE, encoded.length);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return objectMapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public PageBody decode() throws IOException {
+    return objectMapper.readValue(encoded, PageBody.class);
+  }
+
+  /** What a client reads back from a page response. */
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  public static class PageBody {
+    public List<CustomerDTO> content;
+    public long totalElements;
+  }
+}
@@ -2,24 +2,12 @@ package com.example.customer_management_system;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CustomerManagementSystemApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(CustomerManagementSystemApplication.class, args);
 	}
-
-	@Configuration
-	public class WebConfig implements WebMvcConfigurer {
-		@Override
-		public void addCorsMappings(CorsRegistry registry) {
-			registry.addMapping("/**")
-					.allowedOrigins("http://localhost:3000")
-					.allowedMethods("*");
-		}
-	}
 }
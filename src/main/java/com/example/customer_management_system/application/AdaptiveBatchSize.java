@@ -0,0 +1,54 @@
+package com.example.customer_management_system.application;
+
+import java.time.Duration;
+
+/**
+ * AIMD controller for the chunk size of a bulk job. Each commit is scaled to the current size
+ * (commit time per row times rows per chunk), so short tail chunks count the same as full ones.
+ * Chunks projected to commit well within the target grow the size by a fixed step. Slower or
+ * failed commits halve it. Writers therefore back off quickly when the primary is loaded or rows
+ * get wider, and probe upwards again slowly. Shared by the sheet writers of one job.
+ */
+final class AdaptiveBatchSize {
+
+  private static final double DECREASE_FACTOR = 0.5;
+  // Growth stops short of the target, so the size settles instead of oscillating around it
+  private static final double INCREASE_THRESHOLD = 0.8;
+
+  private final int min;
+  private final int max;
+  private final int step;
+  private final long targetNanos;
+  private int current;
+
+  AdaptiveBatchSize(int initial, int min, int max, int step, Duration targetCommitTime) {
+    this.min = min;
+    this.max = max;
+    this.step = step;
+    this.targetNanos = targetCommitTime.toNanos();
+    this.current = Math.max(min, Math.min(max, initial));
+  }
+
+  synchronized int current() {
+    return current;
+  }
+
+  /**
+   * Adjusts the size after a chunk commit.
+   *
+   * @param rows rows in the chunk
+   * @param commitNanos time the chunk's transaction took
+   * @param failed whether the transaction rolled back
+   */
+  synchronized void record(int rows, long commitNanos, boolean failed) {
+    if (rows <= 0) {
+      return;
+    }
+    double projectedNanos = (double) commitNanos / rows * current;
+    if (failed || projectedNanos > targetNanos) {
+      current = Math.max(min, (int) (current * DECREASE_FACTOR));
+    } else if (projectedNanos < targetNanos * INCREASE_THRESHOLD) {
+      current = Math.min(max, current + step);
+    }
+  }
+}
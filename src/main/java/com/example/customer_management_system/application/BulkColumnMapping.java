@@ -0,0 +1,94 @@
+package com.example.customer_management_system.application;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column positions of a bulk-upload sheet, read from its header row. Headers are matched
+ * case-insensitively, ignoring spaces and punctuation, so "NIC Number", "nic_number" and "NIC"
+ * all map to the NIC column. Every header starting with "mobile" or "phone" is a mobile-number
+ * column. Sheets without a recognisable name, date of birth and NIC header keep the original
+ * layout of name, date of birth and NIC in columns 0 to 2.
+ */
+final class BulkColumnMapping {
+
+  static final int ABSENT = -1;
+
+  /** The original three-column layout. */
+  static final BulkColumnMapping POSITIONAL = new BulkColumnMapping();
+
+  int name = 0;
+  int dateOfBirth = 1;
+  int nicNumber = 2;
+  int parentNicNumber = ABSENT;
+  int addressLine1 = ABSENT;
+  int addressLine2 = ABSENT;
+  int city = ABSENT;
+  final List<Integer> mobileNumbers = new ArrayList<>();
+
+  private BulkColumnMapping() {
+  }
+
+  /** @param header the cell values of the header row by column, or null if the sheet has none */
+  static BulkColumnMapping fromHeader(List<String> header) {
+    if (header == null) {
+      return POSITIONAL;
+    }
+
+    BulkColumnMapping mapping = new BulkColumnMapping();
+    mapping.name = ABSENT;
+    mapping.dateOfBirth = ABSENT;
+    mapping.nicNumber = ABSENT;
+
+    for (int column = 0; column < header.size(); column++) {
+      if (header.get(column) == null) continue;
+
+      String key = header.get(column).toLowerCase().replaceAll("[^a-z0-9]", "");
+      switch (key) {
+        case "name":
+        case "fullname":
+        case "customername":
+          mapping.name = column;
+          break;
+        case "dob":
+        case "dateofbirth":
+        case "birthdate":
+          mapping.dateOfBirth = column;
+          break;
+        case "nic":
+        case "nicno":
+        case "nicnumber":
+          mapping.nicNumber = column;
+          break;
+        case "parentnic":
+        case "parentnicno":
+        case "parentnicnumber":
+          mapping.parentNicNumber = column;
+          break;
+        case "address":
+        case "address1":
+        case "addressline1":
+          mapping.addressLine1 = column;
+          break;
+        case "address2":
+        case "addressline2":
+          mapping.addressLine2 = column;
+          break;
+        case "city":
+          mapping.city = column;
+          break;
+        default:
+          if (key.startsWith("mobile") || key.startsWith("phone")) {
+            mapping.mobileNumbers.add(column);
+          }
+      }
+    }
+
+    if (mapping.name == ABSENT || mapping.dateOfBirth == ABSENT || mapping.nicNumber == ABSENT) {
+      mapping.name = POSITIONAL.name;
+      mapping.dateOfBirth = POSITIONAL.dateOfBirth;
+      mapping.nicNumber = POSITIONAL.nicNumber;
+    }
+    return mapping;
+  }
+}
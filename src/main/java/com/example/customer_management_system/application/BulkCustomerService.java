@@ -1,44 +1,161 @@
 package com.example.customer_management_system.application;
 
+import com.example.customer_management_system.config.QueryBudgets;
 import com.example.customer_management_system.model.BulkUploadResponse;
+import com.example.customer_management_system.model.CustomerChangeDTO.ChangeType;
+import com.example.customer_management_system.domain.entities.Address;
 import com.example.customer_management_system.domain.entities.BulkProcessing;
+import com.example.customer_management_system.domain.entities.BulkProcessingSheet;
 import com.example.customer_management_system.domain.entities.Customer;
+import com.example.customer_management_system.domain.entities.MobileNumber;
 import com.example.customer_management_system.domain.repository.BulkProcessingRepository;
-import com.example.customer_management_system.domain.repository.CustomerRepository;
+import com.example.customer_management_system.domain.repository.BulkProcessingSheetRepository;
+import com.example.customer_management_system.domain.repository.CityRepository;
+import com.example.customer_management_system.domain.repository.CustomerChangeRepository;
+import com.example.customer_management_system.domain.repository.CustomerImportRepository;
+import com.example.customer_management_system.domain.repository.CustomerStatsRepository;
+import com.example.customer_management_system.utils.NicCodec;
+import com.example.customer_management_system.utils.QueryCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BulkCustomerService {
 
-  private final CustomerRepository customerRepository;
-  private final BulkProcessingRepository bulkProcessingJobRepository;
+  static final String DEFAULT_TENANT = "default";
 
+  private final BulkProcessingRepository bulkProcessingJobRepository;
+  private final MeterRegistry meterRegistry;
+  private final CityRepository cityRepository;
+  private final CustomerImportRepository customerImportRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+  private final JsonResponseCache jsonResponseCache;
+  private final BulkProcessingSheetRepository sheetRepository;
+  private final BulkUploadStorage bulkUploadStorage;
+  private final CustomerChangeRepository customerChangeRepository;
+  private final CustomerStatsRepository customerStatsRepository;
+  private final QueryBudgets queryBudgets;
+
+  /** Initial chunk size of a job; {@link AdaptiveBatchSize} moves it within the bounds below. */
   @Value("${bulk.processing.batch-size:1000}")
   private int batchSize;
 
+  @Value("${bulk.processing.batch-size-min:100}")
+  private int minBatchSize;
+
+  @Value("${bulk.processing.batch-size-max:5000}")
+  private int maxBatchSize;
+
+  @Value("${bulk.processing.batch-size-step:100}")
+  private int batchSizeStep;
+
+  @Value("${bulk.processing.target-commit-time:500ms}")
+  private Duration targetCommitTime;
+
+  // Chunk size most recently picked by a writer on this node
+  private final AtomicInteger lastBatchSize = new AtomicInteger();
+
+  private Timer chunkTimer;
+  private Counter successRows;
+  private Counter failedRows;
+
+  @Value("${bulk.processing.parallelism:4}")
+  private int parallelism;
+
+  @Value("${bulk.processing.max-writer-connections:4}")
+  private int maxWriterConnections;
+
+  private ExecutorService workers;
+  private Semaphore writerConnections;
+
+  @PostConstruct
+  void startWorkers() {
+    workers = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("bulk-import-"));
+    writerConnections = new Semaphore(maxWriterConnections, true);
+    Gauge.builder(
+            "bulk.import.writers.active",
+            () -> maxWriterConnections - writerConnections.availablePermits())
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  void stopWorkers() {
+    workers.shutdownNow();
+  }
+
+  @PostConstruct
+  void registerMeters() {
+    chunkTimer = Timer.builder("bulk.import.chunk").register(meterRegistry);
+    successRows = Counter.builder("bulk.import.rows").tag("result", "success").register(meterRegistry);
+    failedRows = Counter.builder("bulk.import.rows").tag("result", "failed").register(meterRegistry);
+    Gauge.builder("bulk.import.batch.size", lastBatchSize, AtomicInteger::get).register(meterRegistry);
+  }
+
     /**
      * Handles validation + job creation + async processing kickoff.
      */
 
   public BulkUploadResponse handleBulkUpload(MultipartFile file) {
+    return handleBulkUpload(file == null ? null : Collections.singletonList(file), null, null);
+  }
 
-      if (file == null || file.isEmpty()) {
+  /**
+   * Queues one job for several uploads. Each upload is an Excel workbook (every sheet is imported)
+   * or a zip archive of workbooks.
+   *
+   * @param tenantId owner of the job, for the per-tenant concurrency cap; null for the default
+   * @param priority higher runs first; among equal priorities smaller uploads run first
+   */
+  public BulkUploadResponse handleBulkUpload(
+      List<MultipartFile> files, String tenantId, Integer priority) {
+
+      if (files == null || files.isEmpty() || files.stream().anyMatch(f -> f == null || f.isEmpty())) {
           BulkUploadResponse response = new BulkUploadResponse();
           response.setStatus("FAILED");
           response.setMessage("File is required and cannot be empty");
@@ -47,18 +164,24 @@ public class BulkCustomerService {
 
     String jobId = UUID.randomUUID().toString();
     try {
-      // Validate file
-      validateFile(file);
+      // Validate tenant and files
+      tenant(tenantId);
+      for (MultipartFile file : files) {
+        validateFile(file);
+      }
 
-      // Create job record
+      // Files go to shared storage first, so any node that claims the job can read them
+      bulkUploadStorage.store(jobId, files);
+
+      // Create job record; a BulkJobWorker on some node claims it
       BulkProcessing job = new BulkProcessing(jobId);
+      job.setTenantId(tenant(tenantId));
+      job.setPriority(priority == null ? 0 : priority);
+      job.setUploadBytes(files.stream().mapToLong(MultipartFile::getSize).sum());
       bulkProcessingJobRepository.save(job);
 
-      // Start async processing
-      processBulkUploadAsync(file, jobId);
-
       return new BulkUploadResponse(
-          jobId, "PROCESSING", "Bulk upload started successfully. Use jobId to check status.");
+          jobId, "QUEUED", "Bulk upload queued successfully. Use jobId to check status.");
 
     } catch (Exception e) {
       return new BulkUploadResponse(
@@ -66,70 +189,413 @@ public class BulkCustomerService {
     }
   }
 
-  @Async
-  @Transactional
-  public CompletableFuture<Void> processBulkUploadAsync(MultipartFile file, String jobId) {
-    BulkProcessing job = bulkProcessingJobRepository.findByJobId(jobId).orElse(null);
-    if (job == null) {
-      return CompletableFuture.completedFuture(null);
+  /**
+   * Runs a job claimed by {@link BulkJobWorker}. Workbooks are streamed in parallel, zip archives
+   * entry by entry. Each sheet is staged into its own buffer and written by its own task, resuming
+   * after the rows its checkpoint already covers. Parent links are set in a final pass once every
+   * sheet is written, so a parent may appear after its children, or in another sheet or file of
+   * the same job.
+   *
+   * @param leaseHeld false once the lease was lost; the job then stops without a final status
+   */
+  public void runJob(BulkProcessing job, BooleanSupplier leaseHeld) {
+    JobProgress progress = new JobProgress(job, leaseHeld);
+    List<CustomerStagingBuffer> staged = Collections.synchronizedList(new ArrayList<>());
+    List<Future<?>> workbooks = new ArrayList<>();
+    List<Future<?>> sheets = Collections.synchronizedList(new ArrayList<>());
+    List<Future<?>> links = new ArrayList<>();
+    try {
+      CityNameIndex cities = new CityNameIndex(cityRepository.findAllWithCountry());
+      for (Path file : bulkUploadStorage.files(job.getJobId())) {
+        String source = file.getFileName().toString();
+        if (isZip(source)) {
+          try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(file))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+              if (entry.isDirectory() || !isExcel(entry.getName())) continue;
+
+              // The entry is spooled off the archive stream to a file before it is handed to a worker
+              Path workbook = BulkWorkbookReader.spool(zip);
+              String entrySource = source + "!" + entry.getName();
+              workbooks.add(workers.submit(() -> {
+                try {
+                  return stageWorkbook(workbook, entrySource, cities, staged, progress, sheets);
+                } finally {
+                  Files.deleteIfExists(workbook);
+                }
+              }));
+            }
+          }
+        } else {
+          workbooks.add(workers.submit(() -> stageWorkbook(
+              file, source, cities, staged, progress, sheets)));
+        }
+      }
+
+      // All sheet tasks are known once every workbook has been parsed
+      awaitAll(workbooks);
+      awaitAll(sheets);
+
+      for (CustomerStagingBuffer rows : staged) {
+        links.add(workers.submit(() -> linkParents(rows)));
+      }
+      awaitAll(links);
+      progress.finish(BulkProcessing.JobStatus.COMPLETED, null);
+
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      // Tasks still running stop at their next row or chunk
+      progress.abort();
+      Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+      progress.finish(BulkProcessing.JobStatus.FAILED, cause.getMessage());
+    } finally {
+      // The staging buffers are freed as soon as no task can touch them any more. If this thread
+      // is interrupted first, they are left to the garbage collector.
+      if (awaitQuietly(workbooks) && awaitQuietly(sheets) && awaitQuietly(links)) {
+        synchronized (staged) {
+          staged.forEach(CustomerStagingBuffer::close);
+        }
+      }
     }
+  }
 
-    try {
-      List<Customer> customers = parseExcelFile(file);
-      job.setTotalRecords(customers.size());
-      bulkProcessingJobRepository.save(job);
+  /** Streams the sheets of a workbook into staging buffers and hands each one to a writer. */
+  private Void stageWorkbook(
+      Path file,
+      String source,
+      CityNameIndex cities,
+      List<CustomerStagingBuffer> staged,
+      JobProgress progress,
+      List<Future<?>> sheets)
+      throws IOException {
+    BulkWorkbookReader.read(file, new SheetStager(source, cities, staged, progress, sheets));
+    return null;
+  }
 
-      int successCount = 0;
-      int failedCount = 0;
-      List<Customer> batch = new ArrayList<>();
+  /** Stages the rows of each sheet as the reader delivers them. */
+  private final class SheetStager implements BulkWorkbookReader.RowHandler {
+
+    private final String source;
+    private final CityNameIndex cities;
+    private final List<CustomerStagingBuffer> staged;
+    private final JobProgress progress;
+    private final List<Future<?>> sheets;
+
+    private int sheetIndex;
+    private String sheetName;
+    private BulkColumnMapping columns;
+    private CustomerStagingBuffer rows;
+    private Timer.Sample parseSample;
+
+    SheetStager(
+        String source,
+        CityNameIndex cities,
+        List<CustomerStagingBuffer> staged,
+        JobProgress progress,
+        List<Future<?>> sheets) {
+      this.source = source;
+      this.cities = cities;
+      this.staged = staged;
+      this.progress = progress;
+      this.sheets = sheets;
+    }
 
-      for (int i = 0; i < customers.size(); i++) {
-        Customer customer = customers.get(i);
+    @Override
+    public void startSheet(int sheetIndex, String sheetName) {
+      this.sheetIndex = sheetIndex;
+      this.sheetName = sheetName;
+      // Sheets without a header row keep the original layout
+      columns = BulkColumnMapping.POSITIONAL;
+      rows = new CustomerStagingBuffer();
+      staged.add(rows);
+      parseSample = Timer.start(meterRegistry);
+    }
 
-        try {
-          // Check if NIC already exists
-          if (!customerRepository.existsByNicNumber(customer.getNicNumber())) {
-            batch.add(customer);
-            successCount++;
-          } else {
-            failedCount++; // Skip duplicates
-          }
+    @Override
+    public void row(int rowIndex, List<String> cells) {
+      progress.checkRunning();
+      if (rowIndex == 0) {
+        columns = BulkColumnMapping.fromHeader(cells);
+        return;
+      }
+      try {
+        stageRow(cells, columns, cities, rows);
+      } catch (Exception e) {
+        // Log error but continue processing other rows
+        log.warn("Skipped row {} of sheet {}: {}", rowIndex, sheetName, e.getMessage());
+      }
+    }
 
-          // Process batch when it reaches batch size or at the end
-          if (batch.size() == batchSize || i == customers.size() - 1) {
-            if (!batch.isEmpty()) {
-              customerRepository.saveAll(batch);
-              batch.clear();
-            }
-          }
+    @Override
+    public void endSheet() {
+      parseSample.stop(stageTimer("parse"));
+      CustomerStagingBuffer sheetRows = rows;
+      BulkProcessingSheet checkpoint =
+          progress.sheetStaged(sheetKey(source, sheetIndex), sheetRows.size());
+      sheets.add(workers.submit(() -> writeSheet(sheetRows, checkpoint, cities, progress)));
+    }
+  }
 
-          // Update job progress
-          job.setProcessedRecords(i + 1);
-          job.setSuccessRecords(successCount);
-          job.setFailedRecords(failedCount);
+  /** Stable across runs of a job, so a resumed job finds the checkpoints of its sheets. */
+  private static String sheetKey(String source, int sheetIndex) {
+    String key = source + "#" + sheetIndex;
+    return key.length() <= 512
+        ? key
+        : UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+  }
 
-          if ((i + 1) % 100 == 0) { // Update DB every 100 records
-            bulkProcessingJobRepository.save(job);
-          }
+  private Void writeSheet(
+      CustomerStagingBuffer rows,
+      BulkProcessingSheet sheet,
+      CityNameIndex cities,
+      JobProgress progress)
+      throws InterruptedException {
+    if (sheet.getCompletedAt() != null) {
+      return null;
+    }
 
-        } catch (Exception e) {
-          failedCount++;
-          job.setFailedRecords(failedCount);
-        }
+    for (int start = sheet.getProcessedRecords(), end; start < rows.size(); start = end) {
+      progress.checkRunning();
+      int size = progress.batchSize.current();
+      lastBatchSize.set(size);
+      end = Math.min(start + size, rows.size());
+      Timer.Sample chunkSample = Timer.start(meterRegistry);
+
+      // Writers of all jobs share a few connections, leaving the rest of the pool to the API.
+      // The semaphore is fair, so chunks of concurrent jobs take turns.
+      Timer.Sample waitSample = Timer.start(meterRegistry);
+      writerConnections.acquire();
+      waitSample.stop(stageTimer("wait"));
+      QueryCounter.Scope queries = QueryCounter.start();
+      try {
+        writeChunk(rows, sheet, cities, start, end, progress);
+      } finally {
+        queries.close();
+        writerConnections.release();
       }
+      queryBudgets.checkBulkChunk(progress.jobId(), end - start, queries);
 
-      job.setStatus(BulkProcessing.JobStatus.COMPLETED);
-      job.setSuccessRecords(successCount);
-      job.setFailedRecords(failedCount);
-      bulkProcessingJobRepository.save(job);
+      // Update job progress once per chunk
+      progress.chunkWritten();
 
+      chunkSample.stop(chunkTimer);
+    }
+
+    sheet.setCompletedAt(LocalDateTime.now());
+    transactionTemplate.executeWithoutResult(status -> {
+      sheetRepository.save(sheet);
+      progress.holdLease();
+    });
+    progress.chunkWritten();
+    return null;
+  }
+
+  /**
+   * Writes the new customers of rows {@code start} to {@code end} and the sheet checkpoint in one
+   * transaction. The transaction ends by checking the lease, so a node that lost it neither
+   * commits rows nor overwrites the checkpoint of the node that resumed the job.
+   */
+  private void writeChunk(
+      CustomerStagingBuffer rows,
+      BulkProcessingSheet sheet,
+      CityNameIndex cities,
+      int start,
+      int end,
+      JobProgress progress) {
+    AdaptiveBatchSize batchSize = progress.batchSize;
+    // Skip NICs that already exist or repeat within the chunk, in either spelling; only new rows
+    // become entities
+    Timer.Sample dedupeSample = Timer.start(meterRegistry);
+    Map<Long, Integer> rowsByNicKey = new LinkedHashMap<>();
+    for (int row = start; row < end; row++) {
+      try {
+        rowsByNicKey.putIfAbsent(NicCodec.encode(rows.nicNumber(row)), row);
+      } catch (Exception e) {
+        // Counted as failed below
+      }
+    }
+    Set<Long> existing = customerImportRepository.findExistingNicKeys(rowsByNicKey.keySet());
+    rowsByNicKey.keySet().removeAll(existing);
+    List<Customer> batch = new ArrayList<>();
+    int[] batchRows = new int[end - start];
+    for (int row : rowsByNicKey.values()) {
+      try {
+        batchRows[batch.size()] = row;
+        batch.add(rows.toCustomer(row));
+      } catch (Exception e) {
+        // Counted as failed below
+      }
+    }
+    dedupeSample.stop(stageTimer("dedupe"));
+
+    Timer.Sample persistSample = Timer.start(meterRegistry);
+    int chunkSize = end - start;
+    int processed = sheet.getProcessedRecords();
+    int success = sheet.getSuccessRecords();
+    int failed = sheet.getFailedRecords();
+    int saved = 0;
+    sheet.setProcessedRecords(processed + chunkSize);
+    long commitStart = System.nanoTime();
+    try {
+      // Customers, their child rows and the sheet checkpoint land in the same transaction
+      sheet.setSuccessRecords(success + batch.size());
+      sheet.setFailedRecords(failed + chunkSize - batch.size());
+      transactionTemplate.executeWithoutResult(status -> {
+        if (!batch.isEmpty()) {
+          customerImportRepository.insertCustomers(batch);
+          writeChildRows(rows, batchRows, batch, cities);
+          customerChangeRepository.record(
+              ChangeType.CREATED,
+              batch.stream().map(Customer::getId).collect(Collectors.toList()));
+          customerStatsRepository.add(
+              statsDelta(rows, batchRows, batch, cities, progress.importDay()));
+        }
+        sheetRepository.save(sheet);
+        progress.holdLease();
+      });
+      saved = batch.size();
+      batchSize.record(chunkSize, System.nanoTime() - commitStart, false);
+    } catch (LeaseLostException e) {
+      throw e;
     } catch (Exception e) {
-      job.setStatus(BulkProcessing.JobStatus.FAILED);
-      job.setErrorMessage(e.getMessage());
-      bulkProcessingJobRepository.save(job);
+      // Failures are often lock timeouts or deadlocks under load, so they shrink the chunks too
+      batchSize.record(chunkSize, System.nanoTime() - commitStart, true);
+
+      // The whole batch is counted as failed
+      sheet.setSuccessRecords(success);
+      sheet.setFailedRecords(failed + chunkSize);
+      transactionTemplate.executeWithoutResult(status -> {
+        sheetRepository.save(sheet);
+        progress.holdLease();
+      });
     }
+    persistSample.stop(stageTimer("persist"));
 
-    return CompletableFuture.completedFuture(null);
+    successRows.increment(saved);
+    failedRows.increment(chunkSize - saved);
+  }
+
+  /** Inserts mobile numbers and addresses of the saved customers in JDBC batches. */
+  private void writeChildRows(
+      CustomerStagingBuffer rows, int[] batchRows, List<Customer> batch, CityNameIndex cities) {
+    List<MobileNumber> mobileNumbers = new ArrayList<>();
+    List<Address> addresses = new ArrayList<>();
+    for (int i = 0; i < batch.size(); i++) {
+      Customer customer = batch.get(i);
+      int row = batchRows[i];
+      for (String mobileNumber : rows.mobileNumbers(row)) {
+        mobileNumbers.add(new MobileNumber(customer, mobileNumber));
+      }
+      String addressLine1 = rows.addressLine1(row);
+      if (addressLine1 != null) {
+        addresses.add(
+            new Address(customer, addressLine1, rows.addressLine2(row), cities.get(rows.cityId(row))));
+      }
+    }
+    customerImportRepository.insertMobileNumbers(mobileNumbers);
+    customerImportRepository.insertAddresses(addresses);
+  }
+
+  /** Aggregates the counter changes of a chunk, so each counter is written once per chunk. */
+  private static Map<CustomerStatsRepository.Key, Long> statsDelta(
+      CustomerStagingBuffer rows,
+      int[] batchRows,
+      List<Customer> batch,
+      CityNameIndex cities,
+      LocalDate importDay) {
+    CustomerStatsDelta stats = new CustomerStatsDelta();
+    for (int i = 0; i < batch.size(); i++) {
+      int row = batchRows[i];
+      stats.add(
+          batch.get(i).getDateOfBirth(),
+          rows.addressLine1(row) == null
+              ? Collections.emptyList()
+              : Collections.singletonList(cities.get(rows.cityId(row))));
+    }
+    stats.imported(importDay, batch.size());
+    return stats.changes();
+  }
+
+  /**
+   * Links the customers of one sheet to their parents, which either existed before the job or
+   * were imported by it. Customers that already have a parent keep it. Links go by NIC, so rows
+   * written before a job was resumed are linked as well.
+   */
+  private void linkParents(CustomerStagingBuffer rows) {
+    for (int start = 0; start < rows.size(); start += batchSize) {
+      int end = Math.min(start + batchSize, rows.size());
+
+      Map<String, String> parentNics = new HashMap<>();
+      for (int row = start; row < end; row++) {
+        String parentNic = rows.parentNicNumber(row);
+        if (parentNic != null
+            && NicCodec.encode(parentNic) != NicCodec.encode(rows.nicNumber(row))) {
+          parentNics.put(rows.nicNumber(row), parentNic);
+        }
+      }
+      if (parentNics.isEmpty()) continue;
+
+      Set<String> nics = new HashSet<>(parentNics.keySet());
+      nics.addAll(parentNics.values());
+      Map<String, Long> ids = customerImportRepository.findIdsByNicNumbers(nics);
+      Map<Long, Long> links = new HashMap<>();
+      parentNics.forEach((childNic, parentNic) -> {
+        Long childId = ids.get(childNic);
+        Long parentId = ids.get(parentNic);
+        if (childId == null) {
+          return; // The row itself was not imported
+        }
+        if (parentId == null) {
+          log.warn("Parent NIC {} not found for customer {}", parentNic, childNic);
+        } else {
+          links.put(childId, parentId);
+        }
+      });
+      if (links.isEmpty()) continue;
+
+      transactionTemplate.executeWithoutResult(status -> {
+        List<Long> linked = customerImportRepository.linkParents(links);
+        customerChangeRepository.record(ChangeType.UPDATED, linked);
+      });
+
+      // The links were written with JDBC, so cached customers and family lists are stale
+      Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+      Set<Long> touched = new HashSet<>(links.keySet());
+      touched.addAll(links.values());
+      for (Long id : touched) {
+        cache.evictEntityData(Customer.class, id);
+        cache.evictCollectionData(Customer.class.getName() + ".familyMembers", id);
+      }
+      jsonResponseCache.evictCustomers(touched);
+    }
+  }
+
+  private static void awaitAll(List<Future<?>> futures)
+      throws InterruptedException, ExecutionException {
+    // Index loop: sheet tasks may still be appended while earlier ones are awaited
+    for (int i = 0; i < futures.size(); i++) {
+      futures.get(i).get();
+    }
+  }
+
+  /**
+   * Waits for tasks to end, whether they succeeded or failed.
+   *
+   * @return false if the thread was interrupted before all of them ended
+   */
+  private static boolean awaitQuietly(List<Future<?>> futures) {
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        futures.get(i).get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      } catch (ExecutionException | CancellationException e) {
+        // Already reported through awaitAll
+      }
+    }
+    return true;
   }
 
   public BulkUploadResponse getBulkUploadStatus(String jobId) {
@@ -145,11 +611,16 @@ public class BulkCustomerService {
     response.setProcessedRecords(job.getProcessedRecords());
     response.setSuccessRecords(job.getSuccessRecords());
     response.setFailedRecords(job.getFailedRecords());
+    response.setTotalSheets(job.getTotalSheets());
+    response.setProcessedSheets(job.getProcessedSheets());
+    response.setCurrentBatchSize(job.getCurrentBatchSize());
 
     if (job.getStatus() == BulkProcessing.JobStatus.FAILED) {
       response.setMessage("Processing failed: " + job.getErrorMessage());
     } else if (job.getStatus() == BulkProcessing.JobStatus.COMPLETED) {
       response.setMessage("Processing completed successfully");
+    } else if (job.getStatus() == BulkProcessing.JobStatus.QUEUED) {
+      response.setMessage("Waiting for a worker...");
     } else {
       response.setMessage("Processing in progress...");
     }
@@ -157,16 +628,28 @@ public class BulkCustomerService {
     return response;
   }
 
-  private void validateFile(MultipartFile file) throws IOException {
+  private Timer stageTimer(String stage) {
+    return Timer.builder("bulk.import.stage").tag("stage", stage).register(meterRegistry);
+  }
+
+  private static String tenant(String tenantId) {
+    if (tenantId == null || tenantId.trim().isEmpty()) {
+      return DEFAULT_TENANT;
+    }
+    if (tenantId.trim().length() > 255) {
+      throw new IllegalArgumentException("Tenant id is longer than 255 characters");
+    }
+    return tenantId.trim();
+  }
+
+  void validateFile(MultipartFile file) throws IOException {
     if (file.isEmpty()) {
       throw new IllegalArgumentException("File is empty");
     }
 
     String originalFilename = file.getOriginalFilename();
-    if (originalFilename == null
-        || (!originalFilename.toLowerCase().endsWith(".xlsx")
-            && !originalFilename.toLowerCase().endsWith(".xls"))) {
-      throw new IllegalArgumentException("File must be an Excel file (.xlsx or .xls)");
+    if (!isExcel(originalFilename) && !isZip(originalFilename)) {
+      throw new IllegalArgumentException("File must be an Excel file (.xlsx or .xls) or a .zip of them");
     }
 
     if (file.getSize() > 100 * 1024 * 1024) { // 100MB limit
@@ -174,84 +657,95 @@ public class BulkCustomerService {
     }
   }
 
-  private List<Customer> parseExcelFile(MultipartFile file) throws IOException {
-    List<Customer> customers = new ArrayList<>();
-
-    try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-      Sheet sheet = workbook.getSheetAt(0);
-
-      // Skip header row
-      for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-        Row row = sheet.getRow(i);
-        if (row == null) continue;
-
-        try {
-          Customer customer = parseRowToCustomer(row);
-          if (customer != null) {
-            customers.add(customer);
-          }
-        } catch (Exception e) {
-          // Log error but continue processing other rows
-          System.err.println("Error processing row " + i + ": " + e.getMessage());
-        }
-      }
-    }
+  static boolean isExcel(String filename) {
+    if (filename == null) return false;
+    String name = filename.substring(filename.lastIndexOf('/') + 1).toLowerCase();
+    // Skips resource-fork entries such as __MACOSX/._customers.xlsx
+    return !name.startsWith(".") && (name.endsWith(".xlsx") || name.endsWith(".xls"));
+  }
 
-    return customers;
+  static boolean isZip(String filename) {
+    return filename != null && filename.toLowerCase().endsWith(".zip");
   }
 
-  private Customer parseRowToCustomer(Row row) {
+  /**
+   * Parses a row into the staging buffer.
+   *
+   * @return false if a mandatory field is missing and the row was skipped
+   */
+  boolean stageRow(
+      List<String> cells, BulkColumnMapping columns, CityNameIndex cities, CustomerStagingBuffer rows) {
     try {
-      String name = getCellValueAsString(row.getCell(0));
-      String dobString = getCellValueAsString(row.getCell(1));
-      String nicNumber = getCellValueAsString(row.getCell(2));
+      String name = cell(cells, columns.name);
+      String dobString = cell(cells, columns.dateOfBirth);
+      String nicNumber = cell(cells, columns.nicNumber);
 
       // Validate mandatory fields
-      if (name == null
-          || name.trim().isEmpty()
-          || dobString == null
-          || dobString.trim().isEmpty()
-          || nicNumber == null
-          || nicNumber.trim().isEmpty()) {
-        return null; // Skip invalid rows
+      if (isBlank(name) || isBlank(dobString) || isBlank(nicNumber)) {
+        return false; // Skip invalid rows
       }
 
       LocalDate dateOfBirth = parseDate(dobString);
 
-      Customer customer = new Customer();
-      customer.setName(name.trim());
-      customer.setDateOfBirth(dateOfBirth);
-      customer.setNicNumber(nicNumber.trim());
+      // Optional columns are validated before the row is staged
+      String parentNic = optionalCell(cells, columns.parentNicNumber);
+      List<String> mobileNumbers = new ArrayList<>();
+      for (int column : columns.mobileNumbers) {
+        String cell = optionalCell(cells, column);
+        if (cell == null) continue;
+        for (String mobileNumber : cell.split("[,;/]")) {
+          mobileNumber = mobileNumber.trim();
+          if (mobileNumber.isEmpty()) continue;
+          if (mobileNumber.length() > 15) {
+            throw new IllegalArgumentException("Mobile number is too long: " + mobileNumber);
+          }
+          mobileNumbers.add(mobileNumber);
+        }
+      }
+      String addressLine1 = optionalCell(cells, columns.addressLine1);
+      String addressLine2 = optionalCell(cells, columns.addressLine2);
+      long cityId = 0;
+      if (addressLine1 != null) {
+        String city = optionalCell(cells, columns.city);
+        if (city == null) {
+          throw new IllegalArgumentException("Address has no city");
+        }
+        cityId = cities.resolve(city);
+      }
 
-      return customer;
+      int staged = rows.add(name.trim(), dateOfBirth, NicCodec.normalize(nicNumber));
+      if (parentNic != null) {
+        rows.setParentNicNumber(staged, NicCodec.normalize(parentNic));
+      }
+      if (!mobileNumbers.isEmpty()) {
+        rows.setMobileNumbers(staged, mobileNumbers);
+      }
+      if (addressLine1 != null) {
+        rows.setAddress(staged, addressLine1, addressLine2, cityId);
+      }
+      return true;
 
     } catch (Exception e) {
       throw new RuntimeException("Failed to parse row: " + e.getMessage(), e);
     }
   }
 
-  private String getCellValueAsString(Cell cell) {
-    if (cell == null) return null;
+  /** @return the trimmed cell value, or null if the column is absent or the cell is blank */
+  private static String optionalCell(List<String> cells, int column) {
+    String value = cell(cells, column);
+    return isBlank(value) ? null : value.trim();
+  }
 
-    switch (cell.getCellType()) {
-      case STRING:
-        return cell.getStringCellValue();
-      case NUMERIC:
-        if (DateUtil.isCellDateFormatted(cell)) {
-          return cell.getDateCellValue().toString();
-        } else {
-          return String.valueOf((long) cell.getNumericCellValue());
-        }
-      case BOOLEAN:
-        return String.valueOf(cell.getBooleanCellValue());
-      case FORMULA:
-        return cell.getCellFormula();
-      default:
-        return null;
-    }
+  /** @return the cell value, or null if the column is absent or the row has no such cell */
+  private static String cell(List<String> cells, int column) {
+    return column == BulkColumnMapping.ABSENT || column >= cells.size() ? null : cells.get(column);
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.trim().isEmpty();
   }
 
-  private LocalDate parseDate(String dateString) {
+  LocalDate parseDate(String dateString) {
     try {
       // Try different date formats
       String[] formats = {"yyyy-MM-dd", "dd/MM/yyyy", "MM/dd/yyyy", "dd-MM-yyyy"};
@@ -270,4 +764,141 @@ public class BulkCustomerService {
       throw new RuntimeException("Invalid date format: " + dateString, e);
     }
   }
+
+  /**
+   * Sheet checkpoints of one job, rolled up into the job record on every change. Writes to the job
+   * record only succeed while this node still holds the lease.
+   */
+  private final class JobProgress {
+
+    private final BulkProcessing job;
+    private final BooleanSupplier leaseHeld;
+    private final Map<String, BulkProcessingSheet> sheets = new HashMap<>();
+    private volatile boolean aborted;
+    final AdaptiveBatchSize batchSize;
+
+    JobProgress(BulkProcessing job, BooleanSupplier leaseHeld) {
+      this.job = job;
+      this.leaseHeld = leaseHeld;
+      this.batchSize =
+          new AdaptiveBatchSize(
+              BulkCustomerService.this.batchSize,
+              minBatchSize,
+              maxBatchSize,
+              batchSizeStep,
+              targetCommitTime);
+      // Checkpoints left by an earlier run of the job
+      sheetRepository.findByBulkProcessingId(job.getId()).forEach(s -> sheets.put(s.getSheetKey(), s));
+    }
+
+    /** @return the sheet's checkpoint, created on its first run */
+    synchronized BulkProcessingSheet sheetStaged(String sheetKey, int rows) {
+      BulkProcessingSheet sheet = sheets.get(sheetKey);
+      if (sheet == null) {
+        sheet = sheetRepository.save(new BulkProcessingSheet(job.getId(), sheetKey, rows));
+        sheets.put(sheetKey, sheet);
+      }
+      flush();
+      return sheet;
+    }
+
+    synchronized void chunkWritten() {
+      flush();
+    }
+
+    /** @return the day imported rows are counted under: the day the job was uploaded */
+    LocalDate importDay() {
+      return job.getCreatedAt().toLocalDate();
+    }
+
+    String jobId() {
+      return job.getJobId();
+    }
+
+    void checkLease() {
+      if (!leaseHeld.getAsBoolean()) {
+        throw new LeaseLostException(job.getJobId());
+      }
+    }
+
+    /** Stops the job's remaining tasks at their next row or chunk. */
+    void abort() {
+      aborted = true;
+    }
+
+    void checkRunning() {
+      if (aborted) {
+        throw new CancellationException("Job " + job.getJobId() + " was aborted");
+      }
+      checkLease();
+    }
+
+    /** Fences the surrounding transaction: it only commits while this claim is current. */
+    void holdLease() {
+      if (bulkProcessingJobRepository.holdLease(job.getId(), job.getLeaseOwner(), job.getAttempts())
+          == 0) {
+        throw new LeaseLostException(job.getJobId());
+      }
+    }
+
+    /** Records the final status, unless the lease was lost, and removes the uploaded files. */
+    synchronized void finish(BulkProcessing.JobStatus status, String errorMessage) {
+      int released =
+          bulkProcessingJobRepository.release(
+              job.getJobId(),
+              job.getLeaseOwner(),
+              job.getAttempts(),
+              status,
+              errorMessage,
+              LocalDateTime.now());
+      if (released == 0) {
+        return; // Another claim, possibly this node's own, has taken over the job
+      }
+      try {
+        bulkUploadStorage.delete(job.getJobId());
+      } catch (IOException e) {
+        log.warn("Could not delete uploaded files of job {}", job.getJobId(), e);
+      }
+    }
+
+    private void flush() {
+      checkLease();
+      int processedSheets = 0;
+      int totalRecords = 0;
+      int processedRecords = 0;
+      int successRecords = 0;
+      int failedRecords = 0;
+      for (BulkProcessingSheet sheet : sheets.values()) {
+        processedSheets += sheet.getCompletedAt() != null ? 1 : 0;
+        totalRecords += sheet.getTotalRecords();
+        processedRecords += sheet.getProcessedRecords();
+        successRecords += sheet.getSuccessRecords();
+        failedRecords += sheet.getFailedRecords();
+      }
+      int updated =
+          bulkProcessingJobRepository.updateProgress(
+              job.getJobId(),
+              job.getLeaseOwner(),
+              job.getAttempts(),
+              sheets.size(),
+              processedSheets,
+              totalRecords,
+              processedRecords,
+              successRecords,
+              failedRecords,
+              batchSize.current(),
+              LocalDateTime.now());
+      if (updated == 0) {
+        throw new LeaseLostException(job.getJobId());
+      }
+    }
+  }
+
+  /** Another node took the job over; nothing more may be written on its behalf. */
+  private static final class LeaseLostException extends IllegalStateException {
+
+    LeaseLostException(String jobId) {
+      super("Lease on job " + jobId + " was lost");
+    }
+  }
 }
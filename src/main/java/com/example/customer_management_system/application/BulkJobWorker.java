@@ -0,0 +1,175 @@
+package com.example.customer_management_system.application;
+
+import com.example.customer_management_system.domain.entities.BulkProcessing;
+import com.example.customer_management_system.domain.repository.BulkProcessingRepository;
+import com.example.customer_management_system.domain.repository.SchedulerLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Claims queued bulk jobs for this node. A claim is a lease on the job row, taken with
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED} so that nodes polling at the same time never pick
+ * the same job, and renewed by a heartbeat while the job runs. If a node dies its leases expire,
+ * and another node claims the job again and resumes it from the sheet checkpoints. Leases are
+ * stamped and compared by the database clock, so clock skew between nodes does not shorten them.
+ * Claims are serialized across nodes, so the per-tenant cap counts every job claimed before.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkJobWorker {
+
+  private final BulkProcessingRepository bulkProcessingJobRepository;
+  private final BulkCustomerService bulkCustomerService;
+  private final BulkUploadStorage bulkUploadStorage;
+  private final TransactionTemplate transactionTemplate;
+  private final SchedulerLockRepository schedulerLockRepository;
+
+  @Value("${bulk.processing.node-id:}")
+  private String nodeId;
+
+  @Value("${bulk.processing.max-concurrent-jobs:2}")
+  private int maxConcurrentJobs;
+
+  @Value("${bulk.processing.lease-duration:60s}")
+  private Duration leaseDuration;
+
+  @Value("${bulk.processing.max-attempts:3}")
+  private int maxAttempts;
+
+  @Value("${bulk.processing.max-jobs-per-tenant:1}")
+  private int maxJobsPerTenant;
+
+  // Claims running on this node. A re-claim of the same job is a claim of its own, so a stale run
+  // neither replaces nor removes the entry of the run that took over.
+  private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+  private ExecutorService jobs;
+
+  @PostConstruct
+  void start() throws IOException {
+    if (nodeId.isEmpty()) {
+      String host = InetAddress.getLocalHost().getHostName();
+      nodeId = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+    jobs =
+        Executors.newFixedThreadPool(maxConcurrentJobs, new CustomizableThreadFactory("bulk-job-"));
+  }
+
+  @PreDestroy
+  void stop() {
+    jobs.shutdownNow();
+  }
+
+  /** Claims jobs until this node runs as many as it may. */
+  @Scheduled(fixedDelayString = "${bulk.processing.poll-interval:1000}")
+  public void claimJobs() {
+    while (leases.size() < maxConcurrentJobs) {
+      BulkProcessing job = claim();
+      if (job == null) {
+        return;
+      }
+      if (job.getStatus() == BulkProcessing.JobStatus.FAILED) {
+        deleteFiles(job);
+        continue;
+      }
+
+      Lease lease = new Lease(job.getJobId(), job.getAttempts());
+      leases.add(lease);
+      jobs.submit(() -> {
+        try {
+          bulkCustomerService.runJob(job, lease.held::get);
+        } catch (RuntimeException e) {
+          // The job stays leased until its lease expires, then another claim retries it
+          log.error("Bulk job {} stopped unexpectedly", job.getJobId(), e);
+        } finally {
+          leases.remove(lease);
+        }
+      });
+    }
+  }
+
+  /** Extends the leases of running jobs. A job whose lease was taken over stops at its next chunk. */
+  @Scheduled(fixedDelayString = "${bulk.processing.heartbeat-interval:10000}")
+  public void renewLeases() {
+    for (Lease lease : leases) {
+      if (bulkProcessingJobRepository.renewLease(lease.jobId, nodeId, lease.attempt, leaseMicros())
+          == 0) {
+        lease.held.set(false);
+      }
+    }
+  }
+
+  /**
+   * Leases the next claimable job to this node.
+   *
+   * @return the leased job, a job that was given up and marked as failed, or null if none is waiting
+   */
+  private BulkProcessing claim() {
+    return transactionTemplate.execute(status -> {
+      schedulerLockRepository.lock(SchedulerLockRepository.BULK_JOB_CLAIM);
+      BulkProcessing job = bulkProcessingJobRepository.lockNextClaimable(maxJobsPerTenant).orElse(null);
+      if (job == null) {
+        return null;
+      }
+
+      // A job that keeps losing its node is given up instead of being retried forever
+      if (job.getAttempts() >= maxAttempts) {
+        job.setStatus(BulkProcessing.JobStatus.FAILED);
+        job.setErrorMessage("Abandoned after " + job.getAttempts() + " attempts");
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+        return job;
+      }
+
+      job.setStatus(BulkProcessing.JobStatus.PROCESSING);
+      job.setLeaseOwner(nodeId);
+      job.setAttempts(job.getAttempts() + 1);
+      // Flushes the owner, then stamps the lease by the database clock
+      bulkProcessingJobRepository.renewLease(
+          job.getJobId(), nodeId, job.getAttempts(), leaseMicros());
+      return job;
+    });
+  }
+
+  private long leaseMicros() {
+    return TimeUnit.NANOSECONDS.toMicros(leaseDuration.toNanos());
+  }
+
+  private void deleteFiles(BulkProcessing job) {
+    try {
+      bulkUploadStorage.delete(job.getJobId());
+    } catch (IOException e) {
+      log.warn("Could not delete uploaded files of job {}", job.getJobId(), e);
+    }
+  }
+
+  /** A claim of a job by this node, with a flag that turns false once it is taken over. */
+  private static final class Lease {
+    private final String jobId;
+    private final int attempt;
+    private final AtomicBoolean held = new AtomicBoolean(true);
+
+    private Lease(String jobId, int attempt) {
+      this.jobId = jobId;
+      this.attempt = attempt;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.customer_management_system.application;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps uploaded files until their job finishes. The directory has to be shared by all nodes
+ * (e.g. an NFS mount) so that any node can pick up, or take over, a job.
+ */
+@Component
+public class BulkUploadStorage {
+
+  private final Path root;
+
+  public BulkUploadStorage(
+      @Value("${bulk.processing.storage-dir:${java.io.tmpdir}/customer-bulk-uploads}") String root) {
+    this.root = Paths.get(root).toAbsolutePath();
+  }
+
+  /** Stores the files in upload order under a directory named after the job. */
+  public void store(String jobId, List<MultipartFile> files) throws IOException {
+    Path dir = Files.createDirectories(root.resolve(jobId));
+    for (int i = 0; i < files.size(); i++) {
+      MultipartFile file = files.get(i);
+      file.transferTo(dir.resolve(String.format("%03d-%s", i, safeName(file.getOriginalFilename()))));
+    }
+  }
+
+  /** @return the stored files of a job, in upload order */
+  public List<Path> files(String jobId) throws IOException {
+    Path dir = root.resolve(jobId);
+    if (!Files.isDirectory(dir)) {
+      throw new IOException("Uploaded files of job " + jobId + " are missing");
+    }
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.sorted().collect(Collectors.toList());
+    }
+  }
+
+  public void delete(String jobId) throws IOException {
+    FileSystemUtils.deleteRecursively(root.resolve(jobId));
+  }
+
+  private static String safeName(String originalFilename) {
+    if (originalFilename == null) {
+      return "upload";
+    }
+    // Browsers may send a client-side path; only the last segment is kept
+    int lastSeparator = Math.max(originalFilename.lastIndexOf('/'), originalFilename.lastIndexOf('\\'));
+    String name = originalFilename.substring(lastSeparator + 1);
+    return name.replaceAll("[^A-Za-z0-9._-]", "_");
+  }
+}
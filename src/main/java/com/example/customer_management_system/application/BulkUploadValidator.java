@@ -0,0 +1,215 @@
+package com.example.customer_management_system.application;
+
+import com.example.customer_management_system.domain.repository.CityRepository;
+import com.example.customer_management_system.domain.repository.CustomerImportRepository;
+import com.example.customer_management_system.model.BulkValidationResponse;
+import com.example.customer_management_system.model.BulkValidationResponse.RowError;
+import com.example.customer_management_system.model.BulkValidationResponse.Verdict;
+import com.example.customer_management_system.utils.NicCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Dry run of a bulk upload. Rows go through the same parsing, date decoding and NIC
+ * normalization as an import, and their NICs are checked against each other and, a batch at a
+ * time, against the customers table. Nothing is written: each workbook is streamed from a
+ * temporary copy of the upload, rows are dropped from the staging buffer once checked, and the
+ * lookups run in read-only transactions, so they are served by the replica when it is usable.
+ */
+@Service
+@RequiredArgsConstructor
+public class BulkUploadValidator {
+
+  private static final int CHECK_BATCH_SIZE = 1000;
+
+  private final BulkCustomerService bulkCustomerService;
+  private final CustomerImportRepository customerImportRepository;
+  private final CityRepository cityRepository;
+  private final PlatformTransactionManager transactionManager;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${bulk.validation.max-errors:100}")
+  private int maxErrors;
+
+  private TransactionTemplate readOnlyTransaction;
+  private Timer validationTimer;
+
+  @PostConstruct
+  void init() {
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+    validationTimer = Timer.builder("bulk.validation").register(meterRegistry);
+  }
+
+  /**
+   * Validates the uploads without importing them.
+   *
+   * @param files Excel workbooks or zip archives of workbooks, as for an import
+   * @return the verdict counts and the first rejected rows
+   */
+  public BulkValidationResponse validate(List<MultipartFile> files) {
+    if (files == null || files.isEmpty() || files.stream().anyMatch(f -> f == null || f.isEmpty())) {
+      return new BulkValidationResponse("FAILED", "File is required and cannot be empty");
+    }
+
+    Timer.Sample sample = Timer.start(meterRegistry);
+    try (Validation validation =
+        new Validation(
+            new CityNameIndex(readOnlyTransaction.execute(s -> cityRepository.findAllWithCountry())))) {
+      for (MultipartFile file : files) {
+        bulkCustomerService.validateFile(file);
+      }
+      for (MultipartFile file : files) {
+        String source = file.getOriginalFilename();
+        if (BulkCustomerService.isZip(source)) {
+          try (ZipInputStream zip = new ZipInputStream(file.getInputStream())) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+              if (entry.isDirectory() || !BulkCustomerService.isExcel(entry.getName())) continue;
+              validation.workbook(zip, source + "!" + entry.getName());
+            }
+          }
+        } else {
+          validation.workbook(file.getInputStream(), source);
+        }
+      }
+      return validation.finish();
+
+    } catch (Exception e) {
+      return new BulkValidationResponse("FAILED", "Failed to validate bulk upload: " + e.getMessage());
+    } finally {
+      sample.stop(validationTimer);
+    }
+  }
+
+  /** State of one dry run. NICs are compared by key, so both formats of a NIC collide. */
+  private final class Validation implements AutoCloseable, BulkWorkbookReader.RowHandler {
+
+    private final CityNameIndex cities;
+    private final CustomerStagingBuffer rows = new CustomerStagingBuffer();
+    private final Set<Long> seenNicKeys = new HashSet<>();
+    private final BulkValidationResponse response = new BulkValidationResponse();
+
+    // Rows that passed parsing and wait for the existence check
+    private final List<Long> pendingNicKeys = new ArrayList<>();
+    private final List<String> pendingSheets = new ArrayList<>();
+    private final List<Integer> pendingRows = new ArrayList<>();
+
+    private String source;
+    private String sheetName;
+    private BulkColumnMapping columns;
+
+    Validation(CityNameIndex cities) {
+      this.cities = cities;
+    }
+
+    void workbook(InputStream in, String source) throws IOException {
+      Path workbook = BulkWorkbookReader.spool(in);
+      try {
+        this.source = source;
+        BulkWorkbookReader.read(workbook, this);
+      } finally {
+        Files.deleteIfExists(workbook);
+      }
+    }
+
+    @Override
+    public void startSheet(int sheetIndex, String sheetName) {
+      this.sheetName = source + "#" + sheetName;
+      columns = BulkColumnMapping.POSITIONAL;
+    }
+
+    @Override
+    public void row(int rowIndex, List<String> cells) {
+      // Skip header row
+      if (rowIndex == 0) {
+        columns = BulkColumnMapping.fromHeader(cells);
+        return;
+      }
+
+      response.setTotalRows(response.getTotalRows() + 1);
+      try {
+        if (!bulkCustomerService.stageRow(cells, columns, cities, rows)) {
+          reject(sheetName, rowIndex, Verdict.MISSING_FIELDS, "Name, date of birth and NIC are required");
+          return;
+        }
+      } catch (Exception e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        reject(sheetName, rowIndex, Verdict.INVALID_VALUE, cause.getMessage());
+        return;
+      }
+
+      long nicKey = NicCodec.encode(rows.nicNumber(rows.size() - 1));
+      if (!seenNicKeys.add(nicKey)) {
+        reject(sheetName, rowIndex, Verdict.DUPLICATE_IN_UPLOAD, "NIC appears earlier in the upload");
+        return;
+      }
+      pendingNicKeys.add(nicKey);
+      pendingSheets.add(sheetName);
+      pendingRows.add(rowIndex);
+      if (pendingNicKeys.size() >= CHECK_BATCH_SIZE) {
+        checkExisting();
+      }
+    }
+
+    /** Looks up the pending NICs with one query; rows whose NIC is new are valid. */
+    private void checkExisting() {
+      Set<Long> existing =
+          readOnlyTransaction.execute(
+              s -> customerImportRepository.findExistingNicKeys(pendingNicKeys));
+      for (int i = 0; i < pendingNicKeys.size(); i++) {
+        if (existing.contains(pendingNicKeys.get(i))) {
+          reject(pendingSheets.get(i), pendingRows.get(i), Verdict.ALREADY_EXISTS,
+              "A customer with this NIC already exists");
+        } else {
+          response.setValidRows(response.getValidRows() + 1);
+        }
+      }
+      pendingNicKeys.clear();
+      pendingSheets.clear();
+      pendingRows.clear();
+      // Checked rows are not needed any more
+      rows.clear();
+    }
+
+    private void reject(String sheet, int rowIndex, Verdict verdict, String message) {
+      response.setInvalidRows(response.getInvalidRows() + 1);
+      response.getInvalidRowsByVerdict().merge(verdict, 1, Integer::sum);
+      if (response.getErrors().size() < maxErrors) {
+        response.getErrors().add(new RowError(sheet, rowIndex + 1, verdict, message));
+      } else {
+        response.setErrorsTruncated(true);
+      }
+    }
+
+    BulkValidationResponse finish() {
+      checkExisting();
+      response.setStatus(response.getInvalidRows() == 0 ? "VALID" : "INVALID");
+      response.setMessage(
+          response.getInvalidRows() + " of " + response.getTotalRows() + " rows would be rejected");
+      return response;
+    }
+
+    @Override
+    public void close() {
+      rows.close();
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.example.customer_management_system.application;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the rows of an .xlsx workbook through POI's SAX event API. Sheets are parsed straight
+ * from the zip file and handed over a row at a time, so no workbook DOM is built; only the shared
+ * strings and the styles of the workbook are held in memory.
+ *
+ * <p>Cells arrive as text. Whole numbers keep all their digits, so a NIC typed as a number reads
+ * like the one typed as text, and date-formatted cells read as {@code yyyy-MM-dd}.
+ */
+final class BulkWorkbookReader {
+
+  /** Receives the sheets of a workbook in order, and the rows of each sheet. */
+  interface RowHandler {
+
+    void startSheet(int sheetIndex, String sheetName);
+
+    /**
+     * @param rowIndex the zero-based row number in the sheet; empty rows may be skipped
+     * @param cells the cell values by column, null where a column has no cell
+     */
+    void row(int rowIndex, List<String> cells);
+
+    default void endSheet() {
+    }
+  }
+
+  private BulkWorkbookReader() {
+  }
+
+  static void read(Path file, RowHandler handler) throws IOException {
+    OPCPackage workbook;
+    try {
+      workbook = OPCPackage.open(file.toFile(), PackageAccess.READ);
+    } catch (OpenXML4JException | RuntimeException e) {
+      throw new IOException("Not a readable .xlsx workbook: " + e.getMessage(), e);
+    }
+    try {
+      XSSFReader reader = new XSSFReader(workbook);
+      ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(workbook, false);
+      StylesTable styles = reader.getStylesTable();
+      XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+      for (int index = 0; sheets.hasNext(); index++) {
+        try (InputStream sheet = sheets.next()) {
+          handler.startSheet(index, sheets.getSheetName());
+          XMLReader parser = XMLHelper.newXMLReader();
+          parser.setContentHandler(
+              new XSSFSheetXMLHandler(
+                  styles, strings, new Rows(handler), new PlainDataFormatter(), false));
+          parser.parse(new InputSource(sheet));
+          handler.endSheet();
+        }
+      }
+    } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+      throw new IOException("Failed to read workbook: " + e.getMessage(), e);
+    } finally {
+      // Opened read-only, so there is nothing to save
+      workbook.revert();
+    }
+  }
+
+  /**
+   * Copies a workbook that arrives as a stream, such as a zip entry or a request part, to a
+   * temporary file, so it can be read without holding it on the heap. The caller deletes it.
+   */
+  static Path spool(InputStream in) throws IOException {
+    Path file = Files.createTempFile("bulk-", ".xlsx");
+    try {
+      Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+      return file;
+    } catch (IOException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+  }
+
+  /** Collects the cells of a row, by column, and hands the row over once it ends. */
+  private static final class Rows implements SheetContentsHandler {
+
+    private final RowHandler handler;
+    private final List<String> cells = new ArrayList<>();
+    private int nextColumn;
+
+    Rows(RowHandler handler) {
+      this.handler = handler;
+    }
+
+    @Override
+    public void startRow(int rowNum) {
+      cells.clear();
+      nextColumn = 0;
+    }
+
+    @Override
+    public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+      // The reference is optional in the file format; without it cells follow each other
+      int column =
+          cellReference == null ? nextColumn : new CellReference(cellReference).getCol();
+      while (cells.size() <= column) {
+        cells.add(null);
+      }
+      cells.set(column, formattedValue);
+      nextColumn = column + 1;
+    }
+
+    @Override
+    public void endRow(int rowNum) {
+      handler.row(rowNum, Collections.unmodifiableList(cells));
+    }
+  }
+
+  /**
+   * Formats numbers the way the importer expects them rather than as Excel shows them: Excel's
+   * General format would turn a twelve-digit NIC into {@code 1.99012E+11}.
+   */
+  private static final class PlainDataFormatter extends DataFormatter {
+
+    @Override
+    public String formatRawCellContents(double value, int formatIndex, String formatString) {
+      if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+        return DateUtil.getLocalDateTime(value).toLocalDate().toString();
+      }
+      if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+        return String.valueOf((long) value);
+      }
+      return super.formatRawCellContents(value, formatIndex, formatString);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.customer_management_system.application;
+
+import com.example.customer_management_system.domain.entities.City;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves city names from spreadsheet cells to cities, ignoring case and surrounding spaces.
+ * Built once per bulk job and only read afterwards, so the sheet tasks can share it.
+ */
+final class CityNameIndex {
+
+  private final Map<String, City> byName = new HashMap<>();
+  private final Map<Long, City> byId = new HashMap<>();
+
+  CityNameIndex(Collection<City> cities) {
+    for (City city : cities) {
+      byId.put(city.getId(), city);
+      // A name used by cities in several countries resolves to null
+      String key = key(city.getName());
+      byName.put(key, byName.containsKey(key) ? null : city);
+    }
+  }
+
+  /**
+   * @throws IllegalArgumentException if no city, or more than one, has the name
+   */
+  long resolve(String name) {
+    String key = key(name);
+    if (!byName.containsKey(key)) {
+      throw new IllegalArgumentException("Unknown city: " + name);
+    }
+    City city = byName.get(key);
+    if (city == null) {
+      throw new IllegalArgumentException("Ambiguous city: " + name);
+    }
+    return city.getId();
+  }
+
+  City get(long id) {
+    return byId.get(id);
+  }
+
+  private static String key(String name) {
+    return name.trim().toLowerCase();
+  }
+}
@@ -42,14 +42,15 @@ public class CustomerMapper {
     customer.setDateOfBirth(customerDTO.getDateOfBirth());
     customer.setNicNumber(customerDTO.getNicNumber());
 
-    // Mobile numbers
+    // Mobile numbers and addresses are refilled in place; Hibernate tracks orphans through the
+    // collection instance
     customer.getMobileNumbers().clear();
     if (customerDTO.getMobileNumbers() != null) {
       Set<MobileNumber> mobiles =
           customerDTO.getMobileNumbers().stream()
               .map(number -> new MobileNumber(customer, number))
               .collect(Collectors.toSet());
-      customer.setMobileNumbers(mobiles);
+      customer.getMobileNumbers().addAll(mobiles);
     }
 
     // Addresses
@@ -67,7 +68,7 @@ public class CustomerMapper {
                         customer, addressDTO.getAddressLine1(), addressDTO.getAddressLine2(), city);
                   })
               .collect(Collectors.toSet());
-      customer.setAddresses(addresses);
+      customer.getAddresses().addAll(addresses);
     }
 
     // Family members
@@ -105,6 +106,7 @@ public class CustomerMapper {
     customerDTO.setNicNumber(customer.getNicNumber());
     customerDTO.setCreatedAt(customer.getCreatedAt());
     customerDTO.setUpdatedAt(customer.getUpdatedAt());
+    customerDTO.setRetiredAt(customer.getRetiredAt());
 
     // Mobile numbers
     if (customer.getMobileNumbers() != null) {
@@ -1,30 +1,83 @@
 package com.example.customer_management_system.application;
 
 import com.example.customer_management_system.domain.entities.*;
+import com.example.customer_management_system.model.CustomerChangeDTO;
+import com.example.customer_management_system.model.CustomerChangeDTO.ChangeType;
 import com.example.customer_management_system.model.CustomerDTO;
+import com.example.customer_management_system.model.FamilyTreeNodeDTO;
 import com.example.customer_management_system.utils.CustomerNotFoundException;
+import com.example.customer_management_system.utils.NicCodec;
 import com.example.customer_management_system.domain.repository.CityRepository;
+import com.example.customer_management_system.domain.repository.CustomerChangeRepository;
 import com.example.customer_management_system.domain.repository.CountryRepository;
 import com.example.customer_management_system.domain.repository.CustomerRepository;
+import com.example.customer_management_system.domain.repository.CustomerStatsRepository;
+import com.example.customer_management_system.domain.repository.FamilyTreeRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import lombok.AllArgsConstructor;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class CustomerService {
-  private CustomerRepository customerRepository;
-  private CityRepository cityRepository;
-  private CountryRepository countryRepository;
-  private CustomerValidator customerValidator;
-  private CustomerMapper customerMapper;
+  private final CustomerRepository customerRepository;
+  private final CityRepository cityRepository;
+  private final CountryRepository countryRepository;
+  private final CustomerValidator customerValidator;
+  private final CustomerMapper customerMapper;
+  private final EntityManager entityManager;
+  private final JsonResponseCache jsonResponseCache;
+  private final CustomerChangeRepository customerChangeRepository;
+  private final PlatformTransactionManager transactionManager;
+  private final MeterRegistry meterRegistry;
+  private final CustomerStatsRepository customerStatsRepository;
+
+  @Value("${spring.jpa.properties.hibernate.default_batch_fetch_size:100}")
+  private int streamWindowSize;
+
+  @Value("${customer.family-tree.max-depth:10}")
+  private int familyTreeMaxDepth;
+
+  @Value("${customer.changes.max-limit:10000}")
+  private int changesMaxLimit;
+
+  @Value("${customer.changes.settle-time:5s}")
+  private Duration changesSettleTime;
+
+  // Hot reads are coalesced before a transaction is opened, so waiters hold no connection
+  private TransactionTemplate readOnlyTransaction;
+  private SingleFlight<Long, CustomerDTO> customersById;
+  private SingleFlight<Long, CustomerDTO> customersByNic;
+
+  @PostConstruct
+  void initReads() {
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+    customersById = new SingleFlight<>("id", meterRegistry);
+    customersByNic = new SingleFlight<>("nic", meterRegistry);
+  }
 
   /**
    * Create customer customer dto.
@@ -37,26 +90,92 @@ public class CustomerService {
     customerValidator.validateCustomerCreation(customerDTO);
     Customer customer = customerMapper.toEntity(customerDTO);
     Customer savedCustomer = customerRepository.save(customer);
+    customerChangeRepository.record(
+        ChangeType.CREATED, Collections.singletonList(savedCustomer.getId()));
+    recordCreatedFamilyMembers(savedCustomer);
+    CustomerStatsDelta stats = new CustomerStatsDelta();
+    stats.add(savedCustomer);
+    savedCustomer.getFamilyMembers().forEach(stats::add);
+    customerStatsRepository.add(stats.changes());
+    evictCachedResponses(savedCustomer, null, null);
     log.info("Customer created with NIC {}", savedCustomer.getNicNumber());
     return customerMapper.toDTO(savedCustomer);
   }
 
   /**
-   * Gets customer by id.
+   * Gets customer by id. Concurrent calls for the same id share one load.
    *
    * @param id the id
    * @return the customer by id
    */
   public CustomerDTO getCustomerById(Long id) {
-    Customer customer =
-        customerRepository
-            .findById(id)
-            .orElseThrow(() -> new CustomerNotFoundException("Customer not found with id: " + id));
+    return customersById.execute(
+        id,
+        () ->
+            readOnlyTransaction.execute(
+                status ->
+                    customerRepository
+                        .findById(id)
+                        .map(customerMapper::toDTO)
+                        .orElseThrow(
+                            () -> new CustomerNotFoundException("Customer not found with id: " + id))));
+  }
 
-    return customerMapper.toDTO(customer);
+  /**
+   * Gets customer by NIC number in either format. Concurrent calls for the same NIC share one
+   * load, however it is spelled.
+   *
+   * @param nicNumber the NIC number
+   * @return the customer
+   */
+  public CustomerDTO getCustomerByNicNumber(String nicNumber) {
+    return customersByNic.execute(
+        NicCodec.encode(nicNumber),
+        () ->
+            readOnlyTransaction.execute(
+                status ->
+                    customerRepository
+                        .findByNicNumber(nicNumber)
+                        .map(customerMapper::toDTO)
+                        .orElseThrow(
+                            () ->
+                                new CustomerNotFoundException(
+                                    "Customer not found with NIC: " + nicNumber))));
   }
 
+  /**
+   * Gets the household the customer belongs to, rooted at its topmost ancestor.
+   *
+   * @param id the id
+   * @return the family tree
+   */
+  @Transactional(readOnly = true)
+  public FamilyTreeNodeDTO getFamilyTree(Long id) {
+    List<FamilyTreeRow> rows = customerRepository.findHousehold(id, familyTreeMaxDepth);
+    if (rows.isEmpty()) {
+      throw new CustomerNotFoundException("Customer not found with id: " + id);
+    }
+
+    // Rows arrive parents first, so every member's parent is already in the map
+    FamilyTreeNodeDTO root = null;
+    Map<Long, FamilyTreeNodeDTO> nodes = new HashMap<>();
+    for (FamilyTreeRow row : rows) {
+      FamilyTreeNodeDTO node =
+          new FamilyTreeNodeDTO(
+              row.getId(), row.getName(), row.getNicNumber(), row.getDateOfBirth(), row.getDepth());
+      if (nodes.putIfAbsent(row.getId(), node) != null) {
+        continue; // Already placed in the tree
+      }
+      if (row.getDepth() == 0) {
+        root = node;
+      } else {
+        nodes.get(row.getParentId()).getFamilyMembers().add(node);
+      }
+    }
+    return root;
+  }
 
+  @Transactional(readOnly = true)
   public Page<CustomerDTO> getAllCustomers(int page, int size, String sortBy, String sortDirection) {
     Sort sort = sortDirection.equalsIgnoreCase("desc")
             ? Sort.by(sortBy).descending()
@@ -66,6 +185,57 @@ public class CustomerService {
     return customerRepository.findAll(pageable).map(customerMapper::toDTO);
   }
 
+  /**
+   * Streams every customer, ordered by id, to the consumer. Customers are read in keyset windows
+   * the size of {@code hibernate.default_batch_fetch_size}, so each lazy collection is loaded for
+   * the whole window in one statement. Each window is read and mapped in its own short read-only
+   * transaction, which has ended before the consumer sees the window, so a slow consumer holds no
+   * connection and memory stays flat however many rows are read.
+   *
+   * @param consumer receives each customer dto
+   */
+  public void streamAllCustomers(Consumer<CustomerDTO> consumer) {
+    PageRequest window = PageRequest.of(0, streamWindowSize);
+    long afterId = 0;
+    while (true) {
+      long after = afterId;
+      List<CustomerDTO> customers =
+          readOnlyTransaction.execute(
+              status -> {
+                List<CustomerDTO> dtos = new ArrayList<>();
+                customerRepository
+                    .findWindowAfter(after, window)
+                    .forEach(customer -> dtos.add(customerMapper.toDTO(customer)));
+                return dtos;
+              });
+      if (customers.isEmpty()) {
+        return;
+      }
+      customers.forEach(consumer);
+      afterId = customers.get(customers.size() - 1).getId();
+      if (customers.size() < streamWindowSize) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Streams the changes recorded after a sequence, oldest first. Changes younger than the settle
+   * time are held back so that slower transactions with lower sequences are not skipped.
+   *
+   * <p>Deliberately not read-only: the feed is read from the primary, since a replica applies
+   * transactions late and a consumer could move past a sequence it has not received yet.
+   *
+   * @param since the last sequence the consumer has seen
+   * @param limit the maximum number of changes, capped at the configured maximum
+   * @param consumer receives each change
+   */
+  @Transactional
+  public void streamChanges(long since, int limit, Consumer<CustomerChangeDTO> consumer) {
+    customerChangeRepository.streamSince(
+        since, changesSettleTime, Math.max(1, Math.min(limit, changesMaxLimit)), consumer);
+  }
+
   /**
    * Update customer customer dto.
    *
@@ -82,16 +252,102 @@ public class CustomerService {
 
     customerValidator.validateCustomerUpdate(customerDTO, id);
 
+    Customer previousParent = existingCustomer.getParentCustomer();
+    Long previousNicKey = existingCustomer.getNicKey();
+    CustomerStatsDelta stats = new CustomerStatsDelta();
+    stats.remove(existingCustomer);
     customerMapper.updateEntity(existingCustomer, customerDTO);
     Customer updatedCustomer = customerRepository.save(existingCustomer);
+    customerChangeRepository.record(
+        ChangeType.UPDATED, Collections.singletonList(updatedCustomer.getId()));
+    recordCreatedFamilyMembers(updatedCustomer);
+    // Family members listed by the update are new customers
+    stats.add(updatedCustomer);
+    updatedCustomer.getFamilyMembers().forEach(stats::add);
+    customerStatsRepository.add(stats.changes());
+    evictCachedResponses(updatedCustomer, previousParent, previousNicKey);
     return customerMapper.toDTO(updatedCustomer);
   }
 
+  /**
+   * Retires a customer. A retired customer stays readable and counted until the retention job
+   * archives it; retiring it again keeps the original time.
+   *
+   * @param id the id
+   * @return the customer dto
+   */
+  @Transactional
+  public CustomerDTO retireCustomer(Long id) {
+    Customer customer =
+        customerRepository
+            .findById(id)
+            .orElseThrow(() -> new CustomerNotFoundException("Customer not found with id: " + id));
+    if (customer.getRetiredAt() == null) {
+      customer.setRetiredAt(LocalDateTime.now());
+      customerRepository.save(customer);
+      customerChangeRepository.record(ChangeType.UPDATED, Collections.singletonList(id));
+      evictCachedResponses(customer, null, null);
+    }
+    return customerMapper.toDTO(customer);
+  }
+
+  /**
+   * Family members listed by a create or update are new customers, inserted by cascade. They are
+   * flushed first, so they have ids, and get a change of their own.
+   */
+  private void recordCreatedFamilyMembers(Customer customer) {
+    if (customer.getFamilyMembers().isEmpty()) {
+      return;
+    }
+    entityManager.flush();
+    List<Long> ids = new ArrayList<>();
+    customer.getFamilyMembers().forEach(member -> ids.add(member.getId()));
+    customerChangeRepository.record(ChangeType.CREATED, ids);
+  }
+
+  /** A customer's response changes with it, and so do those of its old and new parent. */
+  private void evictCachedResponses(
+      Customer customer, Customer previousParent, Long previousNicKey) {
+    List<Long> ids = new ArrayList<>();
+    ids.add(customer.getId());
+    if (customer.getParentCustomer() != null) {
+      ids.add(customer.getParentCustomer().getId());
+    }
+    if (previousParent != null) {
+      ids.add(previousParent.getId());
+    }
+    jsonResponseCache.evictCustomers(ids);
+
+    List<Long> nicKeys = new ArrayList<>();
+    nicKeys.add(customer.getNicKey());
+    if (previousNicKey != null) {
+      nicKeys.add(previousNicKey);
+    }
+    forgetInFlightReads(ids, nicKeys);
+  }
+
+  /** Reads that started before the write commits must not be handed to later callers. */
+  private void forgetInFlightReads(List<Long> ids, List<Long> nicKeys) {
+    customersById.forget(ids);
+    customersByNic.forget(nicKeys);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              customersById.forget(ids);
+              customersByNic.forget(nicKeys);
+            }
+          });
+    }
+  }
+
   /**
    * Gets all cities.
    *
    * @return the all cities
    */
+  @Transactional(readOnly = true)
   public List<City> getAllCities() {
     return cityRepository.findAllWithCountry();
   }
@@ -101,6 +357,7 @@ public class CustomerService {
    *
    * @return the all countries
    */
+  @Transactional(readOnly = true)
   public List<Country> getAllCountries() {
     return countryRepository.findAll();
   }
@@ -0,0 +1,282 @@
+package com.example.customer_management_system.application;
+
+import com.example.customer_management_system.domain.entities.Customer;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Off-heap, columnar staging area for parsed bulk-upload rows. Rows wait here between parsing
+ * and writing instead of as {@link Customer} entities, so a multi-million-row job keeps only a
+ * few small objects per segment on the heap.
+ *
+ * <p>Each segment holds {@value #SEGMENT_ROWS} rows in direct buffers: a fixed-width record per
+ * row (NIC and parent NIC bytes, date of birth as epoch day, city id and the offset and length
+ * of each text field) and a separate area with the UTF-8 text the records point into. Not
+ * thread-safe; a buffer is handed from one task to the next.
+ *
+ * <p>The direct memory is freed by {@link #close()} rather than when the garbage collector gets
+ * to the buffers, which for a large job can be long after the job ended.
+ */
+class CustomerStagingBuffer implements AutoCloseable {
+
+  static final int SEGMENT_ROWS = 16 * 1024;
+  static final int NIC_WIDTH = 20;
+
+  private static final int NIC_LENGTH_OFFSET = 0;
+  private static final int NIC_OFFSET = 1;
+  private static final int PARENT_NIC_LENGTH_OFFSET = NIC_OFFSET + NIC_WIDTH;
+  private static final int PARENT_NIC_OFFSET = PARENT_NIC_LENGTH_OFFSET + 1;
+  private static final int EPOCH_DAY_OFFSET = PARENT_NIC_OFFSET + NIC_WIDTH;
+  private static final int CITY_ID_OFFSET = EPOCH_DAY_OFFSET + 4;
+  private static final int TEXT_OFFSET = CITY_ID_OFFSET + 8;
+
+  // Text fields, each stored as an int offset and a short length
+  private static final int NAME = 0;
+  private static final int MOBILE_NUMBERS = 1;
+  private static final int ADDRESS_LINE_1 = 2;
+  private static final int ADDRESS_LINE_2 = 3;
+  private static final int TEXT_FIELD_WIDTH = 6;
+
+  private static final int RECORD_WIDTH = TEXT_OFFSET + 4 * TEXT_FIELD_WIDTH;
+  private static final int INITIAL_TEXT_BYTES_PER_ROW = 24;
+  private static final String MOBILE_SEPARATOR = ",";
+  private static final Consumer<ByteBuffer> FREE = directMemoryRelease();
+
+  private final List<Segment> segments = new ArrayList<>();
+  private int size;
+
+  /**
+   * Appends a row.
+   *
+   * @return the index of the new row
+   * @throws IllegalArgumentException if the NIC does not fit the fixed-width column
+   */
+  int add(String name, LocalDate dateOfBirth, String nicNumber) {
+    byte[] nic = nicBytes(nicNumber);
+    int segment = size / SEGMENT_ROWS;
+    if (segment == segments.size()) {
+      segments.add(new Segment());
+    }
+    segments.get(segment).add(size % SEGMENT_ROWS, name, dateOfBirth, nic);
+    return size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void setParentNicNumber(int row, String parentNicNumber) {
+    segment(row).putNic(row % SEGMENT_ROWS, PARENT_NIC_LENGTH_OFFSET, nicBytes(parentNicNumber));
+  }
+
+  void setMobileNumbers(int row, List<String> mobileNumbers) {
+    String mobiles = String.join(MOBILE_SEPARATOR, mobileNumbers);
+    segment(row).putText(row % SEGMENT_ROWS, MOBILE_NUMBERS, mobiles);
+  }
+
+  void setAddress(int row, String addressLine1, String addressLine2, long cityId) {
+    Segment segment = segment(row);
+    int index = row % SEGMENT_ROWS;
+    segment.putText(index, ADDRESS_LINE_1, addressLine1);
+    segment.putText(index, ADDRESS_LINE_2, addressLine2);
+    segment.records.putLong(index * RECORD_WIDTH + CITY_ID_OFFSET, cityId);
+  }
+
+  String nicNumber(int row) {
+    return segment(row).nic(row % SEGMENT_ROWS, NIC_LENGTH_OFFSET);
+  }
+
+  /** @return the parent NIC, or null if the row has none */
+  String parentNicNumber(int row) {
+    String parentNic = segment(row).nic(row % SEGMENT_ROWS, PARENT_NIC_LENGTH_OFFSET);
+    return parentNic.isEmpty() ? null : parentNic;
+  }
+
+  List<String> mobileNumbers(int row) {
+    String mobiles = segment(row).text(row % SEGMENT_ROWS, MOBILE_NUMBERS);
+    return mobiles == null
+        ? Collections.emptyList()
+        : Arrays.asList(mobiles.split(MOBILE_SEPARATOR));
+  }
+
+  /** @return the first address line, or null if the row has no address */
+  String addressLine1(int row) {
+    return segment(row).text(row % SEGMENT_ROWS, ADDRESS_LINE_1);
+  }
+
+  String addressLine2(int row) {
+    return segment(row).text(row % SEGMENT_ROWS, ADDRESS_LINE_2);
+  }
+
+  long cityId(int row) {
+    return segment(row).records.getLong((row % SEGMENT_ROWS) * RECORD_WIDTH + CITY_ID_OFFSET);
+  }
+
+  /**
+   * Materializes the row as a new, unsaved entity. Mobile numbers, addresses and the parent link
+   * are written separately.
+   */
+  Customer toCustomer(int row) {
+    Segment segment = segment(row);
+    int index = row % SEGMENT_ROWS;
+    Customer customer = new Customer();
+    customer.setName(segment.text(index, NAME));
+    customer.setDateOfBirth(segment.dateOfBirth(index));
+    customer.setNicNumber(segment.nic(index, NIC_LENGTH_OFFSET));
+    return customer;
+  }
+
+  /** Empties the buffer but keeps its segments for reuse. */
+  void clear() {
+    segments.forEach(Segment::clear);
+    size = 0;
+  }
+
+  /** Frees the direct memory of all segments. The buffer must not be read afterwards. */
+  @Override
+  public void close() {
+    segments.forEach(Segment::free);
+    segments.clear();
+    size = 0;
+  }
+
+  private Segment segment(int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+    }
+    return segments.get(row / SEGMENT_ROWS);
+  }
+
+  /**
+   * Frees a direct buffer right away: through {@code Unsafe.invokeCleaner} from Java 9 on, and
+   * through the buffer's own cleaner on Java 8. Where neither can be reached the memory is left
+   * to the garbage collector.
+   */
+  private static Consumer<ByteBuffer> directMemoryRelease() {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      Object unsafe = theUnsafe.get(null);
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      return buffer -> invoke(invokeCleaner, unsafe, buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Java 8 has no invokeCleaner
+    }
+    try {
+      Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return buffer -> {
+        Object bufferCleaner = invoke(cleaner, buffer);
+        if (bufferCleaner != null) {
+          invoke(clean, bufferCleaner);
+        }
+      };
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return buffer -> {};
+    }
+  }
+
+  /** @return the result, or null if the call failed and the memory is left to the collector */
+  private static Object invoke(Method method, Object target, Object... args) {
+    try {
+      return method.invoke(target, args);
+    } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static byte[] nicBytes(String nicNumber) {
+    byte[] nic = nicNumber.getBytes(StandardCharsets.US_ASCII);
+    if (nic.length > NIC_WIDTH) {
+      throw new IllegalArgumentException("NIC number is longer than " + NIC_WIDTH + " characters");
+    }
+    return nic;
+  }
+
+  private static final class Segment {
+    private final ByteBuffer records = ByteBuffer.allocateDirect(SEGMENT_ROWS * RECORD_WIDTH);
+    private ByteBuffer text = ByteBuffer.allocateDirect(SEGMENT_ROWS * INITIAL_TEXT_BYTES_PER_ROW);
+
+    void add(int index, String name, LocalDate dateOfBirth, byte[] nic) {
+      // Segments are reused after clear(), so every field of the record is reset
+      int base = index * RECORD_WIDTH;
+      for (int i = 0; i < RECORD_WIDTH; i += 2) {
+        records.putShort(base + i, (short) 0);
+      }
+      putNic(index, NIC_LENGTH_OFFSET, nic);
+      records.putInt(base + EPOCH_DAY_OFFSET, (int) dateOfBirth.toEpochDay());
+      putText(index, NAME, name);
+    }
+
+    void putNic(int index, int lengthOffset, byte[] nic) {
+      int base = index * RECORD_WIDTH;
+      records.put(base + lengthOffset, (byte) nic.length);
+      ((ByteBuffer) records.duplicate().position(base + lengthOffset + 1)).put(nic);
+    }
+
+    String nic(int index, int lengthOffset) {
+      int base = index * RECORD_WIDTH;
+      byte[] nic = new byte[records.get(base + lengthOffset)];
+      ((ByteBuffer) records.duplicate().position(base + lengthOffset + 1)).get(nic);
+      return new String(nic, StandardCharsets.US_ASCII);
+    }
+
+    /** Empty and null values are both stored as length 0 and read back as null. */
+    void putText(int index, int field, String value) {
+      byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+      if (bytes.length > 0xFFFF) {
+        throw new IllegalArgumentException("Text value is too long");
+      }
+      if (text.remaining() < bytes.length) {
+        grow(bytes.length);
+      }
+      int fieldBase = index * RECORD_WIDTH + TEXT_OFFSET + field * TEXT_FIELD_WIDTH;
+      records.putInt(fieldBase, text.position());
+      records.putShort(fieldBase + 4, (short) bytes.length);
+      text.put(bytes);
+    }
+
+    String text(int index, int field) {
+      int fieldBase = index * RECORD_WIDTH + TEXT_OFFSET + field * TEXT_FIELD_WIDTH;
+      byte[] bytes = new byte[records.getShort(fieldBase + 4) & 0xFFFF];
+      if (bytes.length == 0) {
+        return null;
+      }
+      ((ByteBuffer) text.duplicate().position(records.getInt(fieldBase))).get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    LocalDate dateOfBirth(int index) {
+      return LocalDate.ofEpochDay(records.getInt(index * RECORD_WIDTH + EPOCH_DAY_OFFSET));
+    }
+
+    void clear() {
+      text.clear();
+    }
+
+    void free() {
+      FREE.accept(records);
+      FREE.accept(text);
+    }
+
+    private void grow(int needed) {
+      int capacity = Math.max(text.capacity() * 2, text.position() + needed);
+      ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+      text.flip();
+      grown.put(text);
+      FREE.accept(text);
+      text = grown;
+    }
+  }
+}
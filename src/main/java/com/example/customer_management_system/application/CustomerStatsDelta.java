@@ -0,0 +1,74 @@
+package com.example.customer_management_system.application;
+
+import com.example.customer_management_system.domain.entities.Address;
+import com.example.customer_management_system.domain.entities.City;
+import com.example.customer_management_system.domain.entities.Customer;
+import com.example.customer_management_system.domain.repository.CustomerStatsRepository;
+import com.example.customer_management_system.domain.repository.CustomerStatsRepository.Key;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Counter changes collected over one transaction. An update removes the customer's old state and
+ * adds the new one, so the counters it did not move cancel out. A customer counts once per city
+ * and once per country it has an address in.
+ */
+final class CustomerStatsDelta {
+
+  private final Map<Key, Long> deltas = new TreeMap<>();
+
+  void add(Customer customer) {
+    customer(customer, 1);
+  }
+
+  void remove(Customer customer) {
+    customer(customer, -1);
+  }
+
+  /** Adds a customer whose addresses are not attached to the entity, as in bulk imports. */
+  void add(LocalDate dateOfBirth, Collection<City> cities) {
+    customer(dateOfBirth, cities, 1);
+  }
+
+  void imported(LocalDate day, int rows) {
+    put(CustomerStatsRepository.IMPORT_DAY, day.toString(), rows);
+  }
+
+  /** @return the counters that changed, with their deltas */
+  Map<Key, Long> changes() {
+    deltas.values().removeIf(delta -> delta == 0);
+    return deltas;
+  }
+
+  private void customer(Customer customer, int sign) {
+    customer(
+        customer.getDateOfBirth(),
+        customer.getAddresses().stream().map(Address::getCity).collect(Collectors.toList()),
+        sign);
+  }
+
+  private void customer(LocalDate dateOfBirth, Collection<City> cities, int sign) {
+    put(CustomerStatsRepository.TOTAL, "", sign);
+    put(CustomerStatsRepository.BIRTH_YEAR, String.valueOf(dateOfBirth.getYear()), sign);
+    Set<Long> cityIds = new HashSet<>();
+    Set<Long> countryIds = new HashSet<>();
+    for (City city : cities) {
+      if (cityIds.add(city.getId())) {
+        put(CustomerStatsRepository.CITY, String.valueOf(city.getId()), sign);
+      }
+      if (countryIds.add(city.getCountry().getId())) {
+        put(CustomerStatsRepository.COUNTRY, String.valueOf(city.getCountry().getId()), sign);
+      }
+    }
+  }
+
+  private void put(String group, String key, long delta) {
+    deltas.merge(new Key(group, key), delta, Long::sum);
+  }
+}
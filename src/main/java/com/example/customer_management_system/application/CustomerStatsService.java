@@ -0,0 +1,190 @@
+package com.example.customer_management_system.application;
+
+import com.example.customer_management_system.domain.entities.City;
+import com.example.customer_management_system.domain.entities.Country;
+import com.example.customer_management_system.domain.repository.CityRepository;
+import com.example.customer_management_system.domain.repository.CountryRepository;
+import com.example.customer_management_system.domain.repository.CustomerStatsRepository;
+import com.example.customer_management_system.domain.repository.CustomerStatsRepository.Key;
+import com.example.customer_management_system.domain.repository.SchedulerLockRepository;
+import com.example.customer_management_system.model.CustomerStatsDTO;
+import com.example.customer_management_system.model.CustomerStatsDTO.CityCount;
+import com.example.customer_management_system.model.CustomerStatsDTO.CountryCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Serves the dashboard figures from the {@code customer_stats} counters, which the customer and
+ * bulk writes keep up to date, and periodically corrects any drift between the counters and the
+ * data.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerStatsService {
+
+  // Lower bounds of the age bands
+  private static final int[] AGE_BANDS = {0, 18, 25, 35, 45, 55, 65};
+
+  private final CustomerStatsRepository customerStatsRepository;
+  private final SchedulerLockRepository schedulerLockRepository;
+  private final CityRepository cityRepository;
+  private final CountryRepository countryRepository;
+  private final PlatformTransactionManager transactionManager;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${customer.stats.import-days:30}")
+  private int importDays;
+
+  private TransactionTemplate snapshotTransaction;
+  private Counter corrections;
+
+  @PostConstruct
+  void init() {
+    // Counters and data are read from the same snapshot, so transactions that commit meanwhile
+    // are not mistaken for drift
+    snapshotTransaction = new TransactionTemplate(transactionManager);
+    snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    corrections = Counter.builder("customer.stats.corrections").register(meterRegistry);
+  }
+
+  /**
+   * Gets the dashboard figures. The cost depends on the number of birth years, cities, countries
+   * and import days, not on the number of customers.
+   *
+   * @return the stats
+   */
+  @Transactional(readOnly = true)
+  public CustomerStatsDTO getStats() {
+    LocalDate today = LocalDate.now();
+    Map<Key, Long> counters = customerStatsRepository.findAll(today.minusDays(importDays - 1L));
+    Map<Long, City> cities =
+        cityRepository.findAllWithCountry().stream()
+            .collect(Collectors.toMap(City::getId, Function.identity()));
+    Map<Long, Country> countries =
+        countryRepository.findAll().stream()
+            .collect(Collectors.toMap(Country::getId, Function.identity()));
+
+    CustomerStatsDTO stats = new CustomerStatsDTO();
+    for (int i = 0; i < AGE_BANDS.length; i++) {
+      stats.getAgeBands().put(ageBand(i), 0L);
+    }
+    Map<LocalDate, Long> importedRows = new TreeMap<>();
+    counters.forEach(
+        (counter, count) -> {
+          if (count == 0) {
+            return;
+          }
+          switch (counter.getGroup()) {
+            case CustomerStatsRepository.TOTAL:
+              stats.setTotalCustomers(count);
+              break;
+            case CustomerStatsRepository.BIRTH_YEAR:
+              int age = today.getYear() - Integer.parseInt(counter.getKey());
+              stats.getAgeBands().merge(ageBand(bandOf(age)), count, Long::sum);
+              break;
+            case CustomerStatsRepository.CITY:
+              City city = cities.get(Long.valueOf(counter.getKey()));
+              if (city != null) {
+                stats
+                    .getCities()
+                    .add(
+                        new CityCount(
+                            city.getId(), city.getName(), city.getCountry().getName(), count));
+              }
+              break;
+            case CustomerStatsRepository.COUNTRY:
+              Country country = countries.get(Long.valueOf(counter.getKey()));
+              if (country != null) {
+                stats.getCountries().add(new CountryCount(country.getId(), country.getName(), count));
+              }
+              break;
+            case CustomerStatsRepository.IMPORT_DAY:
+              importedRows.put(LocalDate.parse(counter.getKey()), count);
+              break;
+            default:
+              break;
+          }
+        });
+    stats.getCities().sort(Comparator.comparingLong(CityCount::getCustomers).reversed());
+    stats.getCountries().sort(Comparator.comparingLong(CountryCount::getCustomers).reversed());
+    stats.setImportedRowsByDay(importedRows);
+    return stats;
+  }
+
+  /**
+   * Recounts the counters from the data and adds the difference to them. Writes that bypass the
+   * services, failed deltas or manual fixes in the database are corrected this way; the recount
+   * reads the customer and address tables in full, so it runs rarely.
+   *
+   * <p>Only one node reconciles at a time: a run first locks its {@code scheduler_locks} row and
+   * is skipped if another node holds it. The lock is taken before the snapshot is read, so a run
+   * that follows another one sees its corrections and does not add the same drift again.
+   */
+  @Scheduled(
+      initialDelayString = "${customer.stats.reconcile-interval:3600000}",
+      fixedDelayString = "${customer.stats.reconcile-interval:3600000}")
+  public void reconcile() {
+    int corrected =
+        snapshotTransaction.execute(
+            status -> {
+              if (!schedulerLockRepository.tryLock(SchedulerLockRepository.STATS_RECONCILE)) {
+                log.debug("Customer stats are being reconciled by another node, skipping");
+                return 0;
+              }
+              Map<Key, Long> stored = customerStatsRepository.findAll();
+              Map<Key, Long> actual = customerStatsRepository.countAll();
+              Set<Key> counters = new HashSet<>(stored.keySet());
+              counters.addAll(actual.keySet());
+
+              // Added as a delta rather than overwritten, so concurrent writes are kept
+              Map<Key, Long> drift = new HashMap<>();
+              for (Key counter : counters) {
+                long difference =
+                    actual.getOrDefault(counter, 0L) - stored.getOrDefault(counter, 0L);
+                if (difference != 0) {
+                  drift.put(counter, difference);
+                }
+              }
+              customerStatsRepository.add(drift, 0);
+              return drift.size();
+            });
+    if (corrected > 0) {
+      log.warn("Corrected {} drifted customer stats counters", corrected);
+      corrections.increment(corrected);
+    }
+  }
+
+  private static int bandOf(int age) {
+    int band = 0;
+    while (band + 1 < AGE_BANDS.length && age >= AGE_BANDS[band + 1]) {
+      band++;
+    }
+    return band;
+  }
+
+  private static String ageBand(int band) {
+    return band + 1 < AGE_BANDS.length
+        ? AGE_BANDS[band] + "-" + (AGE_BANDS[band + 1] - 1)
+        : AGE_BANDS[band] + "+";
+  }
+}
@@ -5,6 +5,7 @@ import com.example.customer_management_system.domain.repository.CustomerReposito
 import com.example.customer_management_system.model.CustomerDTO;
 import com.example.customer_management_system.model.FamilyMemberDTO;
 import com.example.customer_management_system.utils.DuplicateNicException;
+import com.example.customer_management_system.utils.NicCodec;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -56,16 +57,20 @@ public class CustomerValidator {
       List<FamilyMemberDTO> familyMembers, String parentNic, Long parentId) {
 
     // Check duplicates within the list
-    List<String> nicNumbers =
-        familyMembers.stream().map(FamilyMemberDTO::getNicNumber).collect(Collectors.toList());
+    // Compared by key, so the old and new spelling of a NIC count as the same
+    List<Long> nicKeys =
+        familyMembers.stream()
+            .map(fm -> NicCodec.encode(fm.getNicNumber()))
+            .collect(Collectors.toList());
 
-    if (nicNumbers.size() != nicNumbers.stream().distinct().count()) {
+    if (nicKeys.size() != nicKeys.stream().distinct().count()) {
       throw new DuplicateNicException("Duplicate NICs found within family members");
     }
 
+    long parentNicKey = NicCodec.encode(parentNic);
     for (FamilyMemberDTO fm : familyMembers) {
       // Family member cannot have same NIC as parent
-      if (fm.getNicNumber().equals(parentNic)) {
+      if (NicCodec.encode(fm.getNicNumber()) == parentNicKey) {
         throw new DuplicateNicException(
             "Family member cannot have the same NIC as the parent customer: " + fm.getNicNumber());
       }
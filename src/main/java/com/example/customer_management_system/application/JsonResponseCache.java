@@ -0,0 +1,268 @@
+package com.example.customer_management_system.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.customer_management_system.config.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps already-encoded JSON (plain and gzip) for reference data and hot customers, so cache
+ * hits are written straight to the response without touching Jackson or the database.
+ *
+ * <p>Customer entries are evicted after a write commits and expire after a TTL, which bounds
+ * anything a missed eviction leaves behind; reference data only expires, since it is only ever
+ * changed directly in the database.
+ *
+ * <p>Evictions are node-local. With several instances behind a load balancer, the others keep
+ * serving their cached copy of a changed customer until it expires, so the customer TTL is also
+ * the longest a node can serve stale data.
+ *
+ * <p>With a read replica, a load right after an eviction may still see the replica's old row. A
+ * customer evicted less than {@code customer.response-cache.replica-window} ago is therefore
+ * served uncached, so only loads made once the replica has caught up are kept.
+ */
+@Component
+public class JsonResponseCache {
+
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+  private final Duration referenceDataTtl;
+  private final Duration customerTtl;
+  private final Duration replicaWindow;
+  private final Map<String, Entry> referenceData = new ConcurrentHashMap<>();
+  private final Map<Long, Entry> customers;
+
+  /** Eviction time of customers evicted within the replica window, oldest first. */
+  private final LinkedHashMap<Long, Long> recentlyEvicted = new LinkedHashMap<>();
+
+  /** Bumped on every eviction; a value computed across an eviction is not stored. */
+  private final AtomicLong generation = new AtomicLong();
+
+  public JsonResponseCache(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+      @Value("${customer.response-cache.max-customers:1000}") int maxCustomers,
+      @Value("${customer.response-cache.customer-ttl:5m}") Duration customerTtl,
+      @Value("${customer.response-cache.reference-data-ttl:1h}") Duration referenceDataTtl,
+      @Value("${customer.response-cache.replica-window:1m}") Duration replicaWindow) {
+    this.objectMapper = objectMapper;
+    this.meterRegistry = meterRegistry;
+    this.referenceDataTtl = referenceDataTtl;
+    this.customerTtl = customerTtl;
+    // Without a replica every read sees the primary, so a load is current once the write commits
+    this.replicaWindow =
+        replicaLagMonitor.getIfAvailable() != null ? replicaWindow : Duration.ZERO;
+    this.customers =
+        new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > maxCustomers;
+          }
+        };
+  }
+
+  /** Cached {@code GET /cities} or {@code /countries} style response. */
+  public ResponseEntity<byte[]> referenceData(String key, String acceptEncoding, Supplier<?> loader) {
+    Entry entry = referenceData.get(key);
+    if (entry == null || entry.isOlderThan(referenceDataTtl)) {
+      record("reference-data", false);
+      long startGeneration = generation.get();
+      entry = encode(loader.get());
+      if (generation.get() == startGeneration) {
+        referenceData.put(key, entry);
+      }
+    } else {
+      record("reference-data", true);
+    }
+    return entry.toResponse(acceptEncoding);
+  }
+
+  /** Cached {@code GET /{id}} response. */
+  public ResponseEntity<byte[]> customer(Long id, String acceptEncoding, Supplier<?> loader) {
+    Entry entry;
+    synchronized (customers) {
+      entry = customers.get(id);
+      if (entry != null && entry.isOlderThan(customerTtl)) {
+        customers.remove(id);
+        entry = null;
+      }
+    }
+    if (entry == null) {
+      record("customers", false);
+      long startGeneration = generation.get();
+      entry = encode(loader.get());
+      synchronized (customers) {
+        if (generation.get() == startGeneration && !isInReplicaWindow(id)) {
+          customers.put(id, entry);
+        }
+      }
+    } else {
+      record("customers", true);
+    }
+    return entry.toResponse(acceptEncoding);
+  }
+
+  /**
+   * Evicts the given customers now and, inside a transaction, again once it commits, so a read
+   * that raced the write cannot leave the old representation behind.
+   */
+  public void evictCustomers(Collection<Long> ids) {
+    evictNow(ids);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              evictNow(ids);
+            }
+          });
+    }
+  }
+
+  public void evictReferenceData() {
+    generation.incrementAndGet();
+    referenceData.clear();
+  }
+
+  private void evictNow(Collection<Long> ids) {
+    synchronized (customers) {
+      generation.incrementAndGet();
+      ids.stream().filter(Objects::nonNull).forEach(customers::remove);
+      if (!replicaWindow.isZero()) {
+        long now = System.nanoTime();
+        for (Long id : ids) {
+          if (id != null) {
+            // Re-inserted, so the map stays ordered by eviction time
+            recentlyEvicted.remove(id);
+            recentlyEvicted.put(id, now);
+          }
+        }
+      }
+    }
+  }
+
+  /** Must hold the {@code customers} lock. */
+  private boolean isInReplicaWindow(Long id) {
+    if (recentlyEvicted.isEmpty()) {
+      return false;
+    }
+    long cutoff = System.nanoTime() - replicaWindow.toNanos();
+    Iterator<Long> evictedAt = recentlyEvicted.values().iterator();
+    while (evictedAt.hasNext() && evictedAt.next() - cutoff < 0) {
+      evictedAt.remove();
+    }
+    return recentlyEvicted.containsKey(id);
+  }
+
+  private void record(String cache, boolean hit) {
+    meterRegistry
+        .counter("response.cache.requests", "cache", cache, "result", hit ? "hit" : "miss")
+        .increment();
+  }
+
+  private Entry encode(Object value) {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(value);
+      ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+      try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+        gzip.write(json);
+      }
+      return new Entry(json, gzipped.toByteArray(), System.nanoTime());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize response", e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static final class Entry {
+    private final byte[] json;
+    private final byte[] gzip;
+    private final long createdAt;
+
+    private Entry(byte[] json, byte[] gzip, long createdAt) {
+      this.json = json;
+      this.gzip = gzip;
+      this.createdAt = createdAt;
+    }
+
+    private boolean isOlderThan(Duration ttl) {
+      return System.nanoTime() - createdAt > ttl.toNanos();
+    }
+
+    private ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+      ResponseEntity.BodyBuilder response =
+          ResponseEntity.ok()
+              .contentType(MediaType.APPLICATION_JSON)
+              .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+      if (acceptsGzip(acceptEncoding)) {
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+      }
+      return response.body(json);
+    }
+  }
+
+  /**
+   * Whether an {@code Accept-Encoding} header allows gzip: a {@code gzip} (or legacy {@code
+   * x-gzip}) coding with a non-zero weight, or, when gzip is not listed, a non-zero {@code *}.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    Double gzip = null;
+    Double any = null;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim();
+      double weight = weight(parts);
+      if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+        gzip = gzip == null ? weight : Math.max(gzip, weight);
+      } else if (name.equals("*")) {
+        any = weight;
+      }
+    }
+    if (gzip != null) {
+      return gzip > 0;
+    }
+    return any != null && any > 0;
+  }
+
+  /** The {@code q} parameter of a coding; 1 when absent, 0 when it cannot be read. */
+  private static double weight(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String[] parameter = parts[i].split("=", 2);
+      if (parameter.length == 2 && parameter[0].trim().equalsIgnoreCase("q")) {
+        try {
+          return Double.parseDouble(parameter[1].trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,235 @@
+package com.example.customer_management_system.application;
+
+import com.example.customer_management_system.domain.entities.Customer;
+import com.example.customer_management_system.domain.repository.CustomerChangeRepository;
+import com.example.customer_management_system.domain.repository.CustomerStatsRepository;
+import com.example.customer_management_system.domain.repository.CustomerStatsRepository.Key;
+import com.example.customer_management_system.domain.repository.RetentionRepository;
+import com.example.customer_management_system.model.CustomerChangeDTO.ChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Archives customers retired longer than {@code retention.customers.retired-for} and bulk jobs
+ * finished longer than {@code retention.bulk-jobs.max-age}. Each batch of at most
+ * {@code retention.batch-size} rows is archived in its own short transaction, with a pause of
+ * {@code retention.batch-pause} before the next, so locks on the live tables are held briefly and
+ * replication keeps up. The stats counters and the change feed move in the same transaction.
+ *
+ * <p>A throttled run can take far longer than a bulk job lease, so it runs on its own thread
+ * rather than the shared scheduler thread that renews those leases.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RetentionService {
+
+  private final RetentionRepository retentionRepository;
+  private final CustomerStatsRepository customerStatsRepository;
+  private final CustomerChangeRepository customerChangeRepository;
+  private final JsonResponseCache jsonResponseCache;
+  private final EntityManagerFactory entityManagerFactory;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${retention.customers.retired-for:365d}")
+  private Duration customersRetiredFor;
+
+  @Value("${retention.bulk-jobs.max-age:90d}")
+  private Duration bulkJobsMaxAge;
+
+  @Value("${retention.batch-size:500}")
+  private int batchSize;
+
+  @Value("${retention.batch-pause:200ms}")
+  private Duration batchPause;
+
+  private Counter archivedCustomers;
+  private Counter archivedJobs;
+
+  private ExecutorService archiver;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  @PostConstruct
+  void init() {
+    archiver = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("retention-"));
+    archivedCustomers =
+        Counter.builder("retention.archived").tag("table", "customers").register(meterRegistry);
+    archivedJobs =
+        Counter.builder("retention.archived").tag("table", "bulk_processing").register(meterRegistry);
+  }
+
+  @PreDestroy
+  void stop() {
+    archiver.shutdownNow();
+  }
+
+  /**
+   * Starts both archivals on the archiver thread, unless the previous run is still going. Several
+   * nodes may run at once; each batch locks the rows it moves.
+   */
+  @Scheduled(
+      initialDelayString = "${retention.interval:86400000}",
+      fixedDelayString = "${retention.interval:86400000}")
+  public void archive() {
+    if (!running.compareAndSet(false, true)) {
+      log.debug("Previous archival is still running, skipping");
+      return;
+    }
+    archiver.execute(() -> {
+      try {
+        archiveBulkJobs();
+        archiveCustomers();
+      } catch (RuntimeException e) {
+        log.error("Archival failed", e);
+      } finally {
+        running.set(false);
+      }
+    });
+  }
+
+  /**
+   * Archives retired customers with their mobile numbers and addresses. A retired customer that
+   * still has family members is skipped until they are gone.
+   *
+   * @return the number of customers archived
+   */
+  public int archiveCustomers() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(customersRetiredFor);
+    int archived = 0;
+    long afterId = 0;
+    while (true) {
+      List<Long> candidates = retentionRepository.findRetiredCustomers(afterId, cutoff, batchSize);
+      if (candidates.isEmpty()) {
+        break;
+      }
+      afterId = candidates.get(candidates.size() - 1);
+
+      List<Long> parents = new ArrayList<>();
+      List<Long> ids =
+          transactionTemplate.execute(
+              status -> {
+                List<Long> locked = retentionRepository.lockArchivableCustomers(candidates, cutoff);
+                if (locked.isEmpty()) {
+                  return locked;
+                }
+                customerStatsRepository.add(
+                    negate(customerStatsRepository.countCustomers(locked)));
+                parents.addAll(retentionRepository.findParentIds(locked));
+                retentionRepository.archiveCustomers(locked, LocalDateTime.now());
+                customerChangeRepository.record(ChangeType.ARCHIVED, locked);
+                return locked;
+              });
+      if (!ids.isEmpty()) {
+        evictCustomers(ids, parents);
+        archived += ids.size();
+        archivedCustomers.increment(ids.size());
+      }
+      if (candidates.size() < batchSize || !pause()) {
+        break;
+      }
+    }
+    if (archived > 0) {
+      log.info("Archived {} customers retired before {}", archived, cutoff);
+    }
+    return archived;
+  }
+
+  /**
+   * Archives completed, failed and cancelled bulk jobs with their sheet checkpoints.
+   *
+   * @return the number of jobs archived
+   */
+  public int archiveBulkJobs() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(bulkJobsMaxAge);
+    int archived = 0;
+    long afterId = 0;
+    while (true) {
+      List<Long> candidates = retentionRepository.findFinishedJobs(afterId, cutoff, batchSize);
+      if (candidates.isEmpty()) {
+        break;
+      }
+      afterId = candidates.get(candidates.size() - 1);
+
+      int count =
+          transactionTemplate.execute(
+              status -> {
+                List<Long> locked = retentionRepository.lockFinishedJobs(candidates, cutoff);
+                if (locked.isEmpty()) {
+                  return 0;
+                }
+                // The import volumes are recounted from the jobs, so they leave with them
+                customerStatsRepository.add(negate(customerStatsRepository.countImports(locked)));
+                retentionRepository.archiveJobs(locked, LocalDateTime.now());
+                return locked.size();
+              });
+      archived += count;
+      archivedJobs.increment(count);
+      if (candidates.size() < batchSize || !pause()) {
+        break;
+      }
+    }
+    if (archived > 0) {
+      log.info("Archived {} bulk jobs finished before {}", archived, cutoff);
+    }
+    return archived;
+  }
+
+  /** Archived rows were removed with JDBC, so cached customers and family lists are stale. */
+  private void evictCustomers(List<Long> ids, List<Long> parents) {
+    Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    for (Long id : ids) {
+      cache.evictEntityData(Customer.class, id);
+      cache.evictCollectionData(Customer.class.getName() + ".mobileNumbers", id);
+      cache.evictCollectionData(Customer.class.getName() + ".addresses", id);
+    }
+    for (Long parentId : parents) {
+      cache.evictEntityData(Customer.class, parentId);
+      cache.evictCollectionData(Customer.class.getName() + ".familyMembers", parentId);
+    }
+    // NIC lookups are cached by key, not by id, so the whole region goes
+    cache.evictNaturalIdData(Customer.class);
+
+    Set<Long> touched = new HashSet<>(ids);
+    touched.addAll(parents);
+    jsonResponseCache.evictCustomers(touched);
+  }
+
+  /** @return false if the thread was interrupted and the run should stop */
+  private boolean pause() {
+    try {
+      Thread.sleep(batchPause.toMillis());
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static Map<Key, Long> negate(Map<Key, Long> counts) {
+    counts.replaceAll((counter, count) -> -count);
+    return counts;
+  }
+}
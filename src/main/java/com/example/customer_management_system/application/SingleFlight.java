@@ -0,0 +1,76 @@
+package com.example.customer_management_system.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader, callers that
+ * arrive while it runs wait on the same future and share its result or exception. Nothing is kept
+ * once the load finishes, so this is not a cache and works the same with or without one behind it.
+ *
+ * <p>Counts loads as {@code customer.lookups{lookup, result=executed|coalesced}}.
+ */
+final class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Counter executed;
+  private final Counter coalesced;
+
+  SingleFlight(String lookup, MeterRegistry meterRegistry) {
+    this.executed = meterRegistry.counter("customer.lookups", "lookup", lookup, "result", "executed");
+    this.coalesced =
+        meterRegistry.counter("customer.lookups", "lookup", lookup, "result", "coalesced");
+  }
+
+  /** Runs the loader, or waits for the load of the same key that is already running. */
+  V execute(K key, Supplier<V> loader) {
+    CompletableFuture<V> load = new CompletableFuture<>();
+    CompletableFuture<V> running = inFlight.putIfAbsent(key, load);
+    if (running != null) {
+      coalesced.increment();
+      return join(running);
+    }
+
+    executed.increment();
+    try {
+      V value = loader.get();
+      load.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, load);
+    }
+  }
+
+  /**
+   * Detaches running loads of the given keys. Callers arriving afterwards start a new load
+   * instead of joining one that may have read the data before a write.
+   */
+  void forget(Collection<K> keys) {
+    keys.forEach(inFlight::remove);
+  }
+
+  private static <V> V join(CompletableFuture<V> running) {
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      // Waiters see the loader's own exception, e.g. CustomerNotFoundException
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.example.customer_management_system.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for {@code /api/customers} and {@code /api/async/customers}. Reads, single
+ * writes, bulk uploads and dry-run validations of uploads each get their own {@link
+ * ConcurrencyLimit}, so a burst of writes or uploads cannot take every connection from the reads
+ * (or the other way round). Requests over the limit are answered at once with 503 and {@code
+ * Retry-After} instead of queueing, which keeps latency bounded while the service is overloaded.
+ *
+ * <p>The async endpoints draw on the same connections, so their reads share the reads' limit. A
+ * streamed response, such as {@code /api/async/customers/stream}, holds its slot until it completes.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    enum RequestClass {
+        READS, WRITES, UPLOADS, VALIDATIONS
+    }
+
+    private static final String PATH_PREFIX = "/api/customers";
+    private static final String ASYNC_PATH_PREFIX = "/api/async/customers";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final Map<RequestClass, ConcurrencyLimit> limits = new EnumMap<>(RequestClass.class);
+
+    public AdmissionControlFilter(
+            MeterRegistry meterRegistry,
+            @Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.retry-after:1s}") Duration retryAfter,
+            @Value("${admission.reads.initial-limit:50}") int readsInitialLimit,
+            @Value("${admission.reads.max-limit:200}") int readsMaxLimit,
+            @Value("${admission.writes.initial-limit:10}") int writesInitialLimit,
+            @Value("${admission.writes.max-limit:50}") int writesMaxLimit,
+            @Value("${admission.uploads.initial-limit:2}") int uploadsInitialLimit,
+            @Value("${admission.uploads.max-limit:4}") int uploadsMaxLimit,
+            @Value("${admission.validations.initial-limit:8}") int validationsInitialLimit,
+            @Value("${admission.validations.max-limit:32}") int validationsMaxLimit) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.retryAfterSeconds = Math.max(1, retryAfter.getSeconds());
+        limits.put(RequestClass.READS, new ConcurrencyLimit(readsInitialLimit, 1, readsMaxLimit));
+        limits.put(RequestClass.WRITES, new ConcurrencyLimit(writesInitialLimit, 1, writesMaxLimit));
+        limits.put(RequestClass.UPLOADS, new ConcurrencyLimit(uploadsInitialLimit, 1, uploadsMaxLimit));
+        limits.put(RequestClass.VALIDATIONS, new ConcurrencyLimit(validationsInitialLimit, 1, validationsMaxLimit));
+        limits.forEach((requestClass, limit) -> {
+            String tag = requestClass.name().toLowerCase();
+            Gauge.builder("admission.limit", limit, ConcurrencyLimit::limit).tag("class", tag).register(meterRegistry);
+            Gauge.builder("admission.in.flight", limit, ConcurrencyLimit::inFlight).tag("class", tag).register(meterRegistry);
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !enabled || !(isUnder(uri, PATH_PREFIX) || isUnder(uri, ASYNC_PATH_PREFIX));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestClass requestClass = classify(request);
+        String tag = requestClass.name().toLowerCase();
+        ConcurrencyLimit limit = limits.get(requestClass);
+        int inFlight = limit.tryAcquire();
+        if (inFlight < 0) {
+            meterRegistry.counter("admission.requests", "class", tag, "result", "rejected").increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent " + tag);
+            return;
+        }
+        meterRegistry.counter("admission.requests", "class", tag, "result", "admitted").increment();
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - start, inFlight);
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streamed and deferred responses hold their slot until they complete
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    static RequestClass classify(HttpServletRequest request) {
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())) {
+            return RequestClass.READS;
+        }
+        if (isUnder(request.getRequestURI(), PATH_PREFIX + "/bulk-upload")) {
+            // Dry runs only read, so they do not wait behind imports
+            return isValidation(request) ? RequestClass.VALIDATIONS : RequestClass.UPLOADS;
+        }
+        return RequestClass.WRITES;
+    }
+
+    /** Whether the path is the prefix itself or below it, so {@code /api/customersX} is not. */
+    private static boolean isUnder(String uri, String prefix) {
+        return uri.startsWith(prefix) && (uri.length() == prefix.length() || uri.charAt(prefix.length()) == '/');
+    }
+
+    /** Reads the query string only; asking for a parameter would parse the multipart body here. */
+    private static boolean isValidation(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query != null
+                && "validate".equals(
+                        UriComponentsBuilder.newInstance().query(query).build().getQueryParams().getFirst("mode"));
+    }
+
+    private static final class ReleasingListener implements AsyncListener {
+        private final Runnable release;
+
+        private ReleasingListener(Runnable release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.customer_management_system.config;
+
+import com.example.customer_management_system.domain.entities.CacheRegions;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Builds the in-process JCache (Ehcache) manager behind Hibernate's second-level cache. Every
+ * region gets a bounded heap tier and a time-to-live; hit and miss counts are published through
+ * the Hibernate statistics meters.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Value("${customer.cache.max-entries:10000}")
+    private long customerMaxEntries;
+
+    @Value("${customer.cache.ttl:10m}")
+    private Duration customerTtl;
+
+    @Value("${customer.cache.reference-data.max-entries:1000}")
+    private long referenceDataMaxEntries;
+
+    @Value("${customer.cache.reference-data.ttl:1h}")
+    private Duration referenceDataTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        org.ehcache.config.Configuration configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(CacheRegions.CUSTOMERS, region(customerMaxEntries, customerTtl))
+                .withCache(CacheRegions.CUSTOMER_NIC, region(customerMaxEntries, customerTtl))
+                .withCache(CacheRegions.REFERENCE_DATA, region(referenceDataMaxEntries, referenceDataTtl))
+                .build();
+        // One manager per application context, so contexts sharing a JVM never share regions
+        return provider.getCacheManager(URI.create("urn:hibernate-cache:" + UUID.randomUUID()), configuration);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private CacheConfigurationBuilder<Object, Object> region(long maxEntries, Duration ttl) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                        Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl));
+    }
+}
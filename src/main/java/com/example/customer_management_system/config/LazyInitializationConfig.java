@@ -0,0 +1,26 @@
+package com.example.customer_management_system.config;
+
+import com.example.customer_management_system.application.BulkJobWorker;
+import com.example.customer_management_system.application.CustomerStatsService;
+import com.example.customer_management_system.application.RetentionService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans that must start with the context even when {@code spring.main.lazy-initialization} is on.
+ * {@code @Scheduled} methods are only registered once their bean is created, so a lazy worker
+ * would never poll.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter scheduledBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                BulkJobWorker.class,
+                ReplicaLagMonitor.class,
+                CustomerStatsService.class,
+                RetentionService.class);
+    }
+}
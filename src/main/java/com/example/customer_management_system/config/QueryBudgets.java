@@ -0,0 +1,79 @@
+package com.example.customer_management_system.config;
+
+import com.example.customer_management_system.utils.QueryCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Statement and database-time budgets per HTTP request and per bulk chunk. Every unit of work
+ * records its statements in {@code db.statements} and its database time in {@code db.time};
+ * one over budget is logged and counted in {@code db.budget.exceeded}, so a new N+1 loop shows
+ * up as soon as it runs rather than as a slow endpoint in production.
+ */
+@Slf4j
+@Component
+public class QueryBudgets {
+
+    private final MeterRegistry meterRegistry;
+    private final int requestStatements;
+    private final Duration requestTime;
+    private final int chunkStatements;
+    private final Duration chunkTime;
+
+    public QueryBudgets(
+            MeterRegistry meterRegistry,
+            @Value("${query.budget.request.statements:20}") int requestStatements,
+            @Value("${query.budget.request.time:500ms}") Duration requestTime,
+            @Value("${query.budget.bulk-chunk.statements:50}") int chunkStatements,
+            @Value("${query.budget.bulk-chunk.time:5s}") Duration chunkTime) {
+        this.meterRegistry = meterRegistry;
+        this.requestStatements = requestStatements;
+        this.requestTime = requestTime;
+        this.chunkStatements = chunkStatements;
+        this.chunkTime = chunkTime;
+    }
+
+    /**
+     * Checks a finished request.
+     *
+     * @param method the HTTP method
+     * @param uri the matched URI pattern, such as {@code /api/customers/{id}}
+     */
+    public void checkRequest(String method, String uri, QueryCounter.Scope queries) {
+        Tags tags = Tags.of("scope", "request", "method", method, "uri", uri);
+        if (check(tags, queries, requestStatements, requestTime)) {
+            log.warn("{} {} ran {} statements in {} ms, over its budget of {} statements or {} ms",
+                    method, uri, queries.statements(), queries.time().toMillis(),
+                    requestStatements, requestTime.toMillis());
+        }
+    }
+
+    /** Checks a written bulk chunk. */
+    public void checkBulkChunk(String jobId, int rows, QueryCounter.Scope queries) {
+        Tags tags = Tags.of("scope", "bulk.chunk", "method", "none", "uri", "none");
+        if (check(tags, queries, chunkStatements, chunkTime)) {
+            log.warn("Chunk of {} rows in job {} ran {} statements in {} ms, over its budget of {} statements or {} ms",
+                    rows, jobId, queries.statements(), queries.time().toMillis(),
+                    chunkStatements, chunkTime.toMillis());
+        }
+    }
+
+    /** @return true if the work was over budget */
+    private boolean check(Tags tags, QueryCounter.Scope queries, int maxStatements, Duration maxTime) {
+        DistributionSummary.builder("db.statements").tags(tags).register(meterRegistry).record(queries.statements());
+        Timer.builder("db.time").tags(tags).register(meterRegistry).record(queries.time());
+        if (queries.statements() <= maxStatements && queries.time().compareTo(maxTime) <= 0) {
+            return false;
+        }
+        Counter.builder("db.budget.exceeded").tags(tags).register(meterRegistry).increment();
+        return true;
+    }
+}
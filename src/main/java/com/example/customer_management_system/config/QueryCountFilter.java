@@ -0,0 +1,47 @@
+package com.example.customer_management_system.config;
+
+import com.example.customer_management_system.utils.QueryCounter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Counts the statements of each {@code /api} request and checks them against
+ * {@link QueryBudgets}. Only the request thread is counted, so requests handed to another thread
+ * (the async endpoints) are not checked.
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryBudgets queryBudgets;
+
+    public QueryCountFilter(QueryBudgets queryBudgets) {
+        this.queryBudgets = queryBudgets;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter.Scope queries = QueryCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            queries.close();
+        }
+        if (!request.isAsyncStarted()) {
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            queryBudgets.checkRequest(request.getMethod(), uri != null ? uri.toString() : "UNKNOWN", queries);
+        }
+    }
+}
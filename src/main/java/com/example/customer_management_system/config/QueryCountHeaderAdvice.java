@@ -0,0 +1,42 @@
+package com.example.customer_management_system.config;
+
+import com.example.customer_management_system.utils.QueryCounter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds {@value #HEADER} with the statements the request has run so far, which is all of them
+ * unless the body is streamed. Off in the {@code prod} profile ({@code query.count-header}).
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "query.count-header", havingValue = "true", matchIfMissing = true)
+public class QueryCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-Query-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+        QueryCounter.Scope queries = QueryCounter.current();
+        if (queries != null) {
+            response.getHeaders().set(HEADER, String.valueOf(queries.statements()));
+        }
+        return body;
+    }
+}
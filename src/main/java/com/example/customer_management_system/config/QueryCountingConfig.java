@@ -0,0 +1,34 @@
+package com.example.customer_management_system.config;
+
+import com.example.customer_management_system.utils.QueryCounter;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's {@code dataSource} in a datasource-proxy that reports every statement
+ * to {@link QueryCounter}. JPA, the JDBC repositories and Flyway all go through this bean, so
+ * nothing escapes the count; the pools behind it are left unwrapped.
+ */
+@Configuration(proxyBeanMethods = false)
+public class QueryCountingConfig {
+
+    @Bean
+    static BeanPostProcessor queryCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(beanName)
+                        .afterQuery((execution, queries) -> QueryCounter.record(execution.getElapsedTime()))
+                        .build();
+            }
+        };
+    }
+}
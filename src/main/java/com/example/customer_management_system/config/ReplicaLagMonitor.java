@@ -0,0 +1,62 @@
+package com.example.customer_management_system.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Periodically measures how far the read replica is behind the primary. While the lag exceeds
+ * the limit, or the replica cannot be reached, read-only transactions fall back to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private volatile boolean replicaUsable = true;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, Duration maxLag) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Runs the lag query against the replica. The query must expose a
+     * {@code Seconds_Behind_Master} column, as MariaDB's {@code SHOW SLAVE STATUS} does; no row
+     * means the server is not replicating and is read as zero lag, a NULL value means replication
+     * is stopped.
+     */
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.lag-check-interval:5000}")
+    public void checkLag() {
+        boolean usable;
+        try {
+            SqlRowSet status = replicaJdbcTemplate.queryForRowSet(lagQuery);
+            if (!status.next()) {
+                usable = true;
+            } else {
+                Object secondsBehind = status.getObject("Seconds_Behind_Master");
+                usable = secondsBehind != null
+                        && ((Number) secondsBehind).longValue() <= maxLag.getSeconds();
+            }
+        } catch (Exception e) {
+            log.debug("Replica lag check failed", e);
+            usable = false;
+        }
+
+        if (usable != replicaUsable) {
+            log.warn(usable ? "Read replica caught up, routing reads to it again"
+                    : "Read replica unavailable or lagging, routing reads to the primary");
+        }
+        replicaUsable = usable;
+    }
+}
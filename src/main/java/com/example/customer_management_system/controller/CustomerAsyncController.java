@@ -0,0 +1,112 @@
+package com.example.customer_management_system.controller;
+
+import com.example.customer_management_system.application.CustomerService;
+import com.example.customer_management_system.domain.entities.City;
+import com.example.customer_management_system.domain.entities.Country;
+import com.example.customer_management_system.model.CustomerDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of the read endpoints in {@link CustomerController}. Each request is
+ * handed to the application task executor and the Tomcat thread goes back to the pool until the
+ * result is ready, so open connections are no longer capped by the request thread count.
+ *
+ * <p>The reads themselves are still blocking JPA calls: requests that are doing database work at
+ * the same time are capped by the executor and, below it, by the Hikari pool. What this buys is
+ * that connections waiting on those pools, or on a slow client, hold no request thread.
+ */
+@RestController
+@RequestMapping("/api/async/customers")
+@CrossOrigin(origins = "http://localhost:3000")
+@Timed(value = "customers.api.async", percentiles = {0.5, 0.95, 0.99}, histogram = true)
+public class CustomerAsyncController {
+
+  private static final int FLUSH_EVERY = 100;
+
+  private final CustomerService customerService;
+  private final AsyncTaskExecutor readExecutor;
+  private final ObjectWriter ndjsonWriter;
+
+  public CustomerAsyncController(
+      CustomerService customerService,
+      @Qualifier("applicationTaskExecutor") AsyncTaskExecutor readExecutor,
+      ObjectMapper objectMapper) {
+    this.customerService = customerService;
+    this.readExecutor = readExecutor;
+    // The response stays open between rows and is flushed in batches
+    this.ndjsonWriter =
+        objectMapper
+            .writerFor(CustomerDTO.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  @GetMapping("/{id}")
+  public CompletableFuture<CustomerDTO> getCustomerById(@PathVariable Long id) {
+    return CompletableFuture.supplyAsync(() -> customerService.getCustomerById(id), readExecutor);
+  }
+
+  @GetMapping("/cities")
+  public CompletableFuture<List<City>> getAllCities() {
+    return CompletableFuture.supplyAsync(customerService::getAllCities, readExecutor);
+  }
+
+  @GetMapping("/countries")
+  public CompletableFuture<List<Country>> getAllCountries() {
+    return CompletableFuture.supplyAsync(customerService::getAllCountries, readExecutor);
+  }
+
+  @GetMapping
+  public CompletableFuture<Page<CustomerDTO>> getAllCustomers(
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "10") int size,
+      @RequestParam(defaultValue = "id") String sortBy,
+      @RequestParam(defaultValue = "asc") String sortDirection) {
+    return CompletableFuture.supplyAsync(
+        () -> customerService.getAllCustomers(page, size, sortBy, sortDirection), readExecutor);
+  }
+
+  /**
+   * Streams every customer as newline-delimited JSON. Rows are read a window at a time and
+   * written as they arrive; a slow client blocks the writer, which in turn holds back the next
+   * window, so neither side buffers the full result. Each window's transaction ends before it is
+   * written, so a slow client does not keep a database connection.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamCustomers() {
+    StreamingResponseBody body =
+        out -> {
+          int[] written = {0};
+          customerService.streamAllCustomers(
+              customer -> {
+                try {
+                  ndjsonWriter.writeValue(out, customer);
+                  out.write('\n');
+                  if (++written[0] % FLUSH_EVERY == 0) {
+                    out.flush();
+                  }
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+          out.flush();
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+}
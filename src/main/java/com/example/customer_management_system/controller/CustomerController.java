@@ -1,32 +1,52 @@
 package com.example.customer_management_system.controller;
 
 import com.example.customer_management_system.model.BulkUploadResponse;
+import com.example.customer_management_system.model.BulkValidationResponse;
+import com.example.customer_management_system.model.CustomerChangeDTO;
 import com.example.customer_management_system.model.CustomerDTO;
-import com.example.customer_management_system.domain.entities.City;
-import com.example.customer_management_system.domain.entities.Country;
+import com.example.customer_management_system.model.CustomerStatsDTO;
+import com.example.customer_management_system.model.FamilyTreeNodeDTO;
 import com.example.customer_management_system.application.BulkCustomerService;
+import com.example.customer_management_system.application.BulkUploadValidator;
 import com.example.customer_management_system.application.CustomerService;
+import com.example.customer_management_system.application.CustomerStatsService;
+import com.example.customer_management_system.application.JsonResponseCache;
+import com.example.customer_management_system.config.BinaryFormatsConfig;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/customers")
 @CrossOrigin(origins = "http://localhost:3000")
+@Timed(value = "customers.api", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 @AllArgsConstructor
 public class CustomerController {
 
   private CustomerService customerService;
   private BulkCustomerService bulkCustomerService;
+  private JsonResponseCache jsonResponseCache;
+  private ObjectMapper objectMapper;
+  private CustomerStatsService customerStatsService;
+  private BulkUploadValidator bulkUploadValidator;
 
   @PostMapping
   public CustomerDTO createCustomer(@Valid @RequestBody CustomerDTO customerDTO) {
@@ -34,12 +54,42 @@ public class CustomerController {
     return createdCustomer;
   }
 
-  @GetMapping("/{id}")
-  public CustomerDTO getCustomerById(@PathVariable Long id) {
-    CustomerDTO customer = customerService.getCustomerById(id);
+  /**
+   * JSON comes pre-encoded from the response cache. Smile and CBOR are encoded per request from
+   * the (coalesced) customer read.
+   */
+  @GetMapping(
+      value = "/{id}",
+      produces = {
+        MediaType.APPLICATION_JSON_VALUE,
+        BinaryFormatsConfig.APPLICATION_SMILE_VALUE,
+        MediaType.APPLICATION_CBOR_VALUE
+      })
+  public ResponseEntity<?> getCustomerById(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    if (prefersBinary(accept)) {
+      return ResponseEntity.ok()
+          .varyBy(HttpHeaders.ACCEPT)
+          .body(customerService.getCustomerById(id));
+    }
+    return jsonResponseCache.customer(
+        id, acceptEncoding, () -> customerService.getCustomerById(id));
+  }
+
+  @GetMapping("/nic/{nicNumber}")
+  public CustomerDTO getCustomerByNicNumber(@PathVariable String nicNumber) {
+    CustomerDTO customer = customerService.getCustomerByNicNumber(nicNumber);
     return customer;
   }
 
+  @GetMapping("/{id}/family-tree")
+  public FamilyTreeNodeDTO getFamilyTree(@PathVariable Long id) {
+    FamilyTreeNodeDTO familyTree = customerService.getFamilyTree(id);
+    return familyTree;
+  }
+
   @PutMapping("/{id}")
   public CustomerDTO updateCustomer(
       @PathVariable Long id, @Valid @RequestBody CustomerDTO customerDTO) {
@@ -47,16 +97,29 @@ public class CustomerController {
     return updatedCustomer;
   }
 
-  @GetMapping("/cities")
-  public List<City> getAllCities() {
-    List<City> cities = customerService.getAllCities();
-    return cities;
+  @PostMapping("/{id}/retire")
+  public CustomerDTO retireCustomer(@PathVariable Long id) {
+    CustomerDTO retiredCustomer = customerService.retireCustomer(id);
+    return retiredCustomer;
+  }
+
+  @GetMapping(value = "/cities", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<byte[]> getAllCities(
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    return jsonResponseCache.referenceData("cities", acceptEncoding, customerService::getAllCities);
+  }
+
+  @GetMapping(value = "/countries", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<byte[]> getAllCountries(
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    return jsonResponseCache.referenceData(
+        "countries", acceptEncoding, customerService::getAllCountries);
   }
 
-  @GetMapping("/countries")
-  public List<Country> getAllCountries() {
-    List<Country> countries = customerService.getAllCountries();
-    return countries;
+  /** Dashboard figures from the aggregate counters; the cost does not grow with the customers. */
+  @GetMapping("/stats")
+  public CustomerStatsDTO getStats() {
+    return customerStatsService.getStats();
   }
 
   @GetMapping
@@ -71,16 +134,83 @@ public class CustomerController {
     return customers;
   }
 
+  /**
+   * Streams the changes after {@code since} as newline-delimited JSON, oldest first. Consumers
+   * pass the last {@code sequence} they received as the next {@code since}; fewer lines than
+   * {@code limit} means they have caught up.
+   */
+  @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> getChanges(
+      @RequestParam(defaultValue = "0") long since,
+      @RequestParam(defaultValue = "1000") int limit) {
+    ObjectWriter writer =
+        objectMapper
+            .writerFor(CustomerChangeDTO.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    StreamingResponseBody body =
+        out -> {
+          customerService.streamChanges(
+              since,
+              limit,
+              change -> {
+                try {
+                  writer.writeValue(out, change);
+                  out.write('\n');
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+          out.flush();
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
   @PostMapping("/bulk-upload")
-  public BulkUploadResponse bulkUploadCustomers(@RequestParam("file") MultipartFile file) {
-    BulkUploadResponse response = bulkCustomerService.handleBulkUpload(file);
+  public BulkUploadResponse bulkUploadCustomers(
+      @RequestParam("file") List<MultipartFile> files,
+      @RequestParam(value = "priority", required = false) Integer priority,
+      @RequestHeader(value = "X-Tenant-Id", required = false) String tenantId) {
+    BulkUploadResponse response = bulkCustomerService.handleBulkUpload(files, tenantId, priority);
     return response;
   }
 
+  /** Dry run: reports which rows an import would reject, without queueing a job. */
+  @PostMapping(value = "/bulk-upload", params = "mode=validate")
+  public BulkValidationResponse validateBulkUpload(@RequestParam("file") List<MultipartFile> files) {
+    BulkValidationResponse response = bulkUploadValidator.validate(files);
+    return response;
+  }
 
-  @GetMapping(value = "/bulk-upload/status/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+
+  @GetMapping(
+      value = "/bulk-upload/status/{jobId}",
+      produces = {
+        MediaType.APPLICATION_JSON_VALUE,
+        BinaryFormatsConfig.APPLICATION_SMILE_VALUE,
+        MediaType.APPLICATION_CBOR_VALUE
+      })
   public BulkUploadResponse getBulkUploadStatus(@PathVariable String jobId) {
     BulkUploadResponse response = bulkCustomerService.getBulkUploadStatus(jobId);
     return response;
   }
+
+  /** Whether the most preferred of the types this controller renders is Smile or CBOR. */
+  private static boolean prefersBinary(String accept) {
+    if (accept == null) {
+      return false;
+    }
+    List<MediaType> acceptable = MediaType.parseMediaTypes(accept);
+    MediaType.sortBySpecificityAndQuality(acceptable);
+    for (MediaType mediaType : acceptable) {
+      if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+        return false;
+      }
+      if (mediaType.includes(BinaryFormatsConfig.APPLICATION_SMILE)
+          || mediaType.includes(MediaType.APPLICATION_CBOR)) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -21,7 +21,7 @@ public class BulkProcessing {
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
-    private JobStatus status = JobStatus.PROCESSING;
+    private JobStatus status = JobStatus.QUEUED;
 
     @Column(name = "total_records")
     private Integer totalRecords = 0;
@@ -35,6 +35,36 @@ public class BulkProcessing {
     @Column(name = "failed_records")
     private Integer failedRecords = 0;
 
+    @Column(name = "total_sheets")
+    private Integer totalSheets = 0;
+
+    @Column(name = "processed_sheets")
+    private Integer processedSheets = 0;
+
+    @Column(name = "current_batch_size")
+    private Integer currentBatchSize;
+
+    @Column(name = "tenant_id")
+    private String tenantId;
+
+    @Column(name = "priority")
+    private Integer priority = 0;
+
+    @Column(name = "upload_bytes")
+    private Long uploadBytes = 0L;
+
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "attempts")
+    private Integer attempts = 0;
+
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
@@ -60,6 +90,6 @@ public class BulkProcessing {
     }
 
     public enum JobStatus {
-        PROCESSING, COMPLETED, FAILED, CANCELLED
+        QUEUED, PROCESSING, COMPLETED, FAILED, CANCELLED
     }
 }
@@ -0,0 +1,66 @@
+package com.example.customer_management_system.domain.entities;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one sheet of a bulk job. Updated in the same transaction as each chunk of rows,
+ * so it is the checkpoint a job resumes from after its lease moves to another node.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "bulk_processing_sheets")
+public class BulkProcessingSheet {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bulk_processing_id", nullable = false)
+    private Long bulkProcessingId;
+
+    @Column(name = "sheet_key", nullable = false, length = 512)
+    private String sheetKey;
+
+    @Column(name = "total_records")
+    private Integer totalRecords = 0;
+
+    @Column(name = "processed_records")
+    private Integer processedRecords = 0;
+
+    @Column(name = "success_records")
+    private Integer successRecords = 0;
+
+    @Column(name = "failed_records")
+    private Integer failedRecords = 0;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public BulkProcessingSheet(Long bulkProcessingId, String sheetKey, Integer totalRecords) {
+        this.bulkProcessingId = bulkProcessingId;
+        this.sheetKey = sheetKey;
+        this.totalRecords = totalRecords;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.customer_management_system.domain.entities;
+
+/** Second-level cache regions; their size and TTL are set up in {@code HibernateCacheConfig}. */
+public final class CacheRegions {
+
+    /** Customers, their child rows and collections. */
+    public static final String CUSTOMERS = "customers";
+    /** NIC number -> customer id resolutions. */
+    public static final String CUSTOMER_NIC = "customers.nic";
+    /** Cities and countries. */
+    public static final String REFERENCE_DATA = "reference-data";
+
+    private CacheRegions() {
+    }
+}
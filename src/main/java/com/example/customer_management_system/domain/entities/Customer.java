@@ -1,5 +1,6 @@
 package com.example.customer_management_system.domain.entities;
 
+import com.example.customer_management_system.utils.NicCodec;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import java.time.LocalDate;
@@ -12,6 +13,10 @@ import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,6 +25,8 @@ import lombok.*;
 @Builder
 @Entity
 @Table(name = "customers")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CUSTOMERS)
+@NaturalIdCache(region = CacheRegions.CUSTOMER_NIC)
 public class Customer {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -33,16 +40,24 @@ public class Customer {
   @Column(name = "date_of_birth", nullable = false)
   private LocalDate dateOfBirth;
 
+  /** The NIC as entered, normalized; lookups and uniqueness go through {@link #nicKey}. */
   @NotBlank(message = "NIC number is mandatory")
-  @Column(name = "nic_number", nullable = false, unique = true)
+  @Column(name = "nic_number", nullable = false)
   private String nicNumber;
 
+  /** {@link NicCodec#encode(String)} of the NIC; kept in step by {@link #setNicNumber(String)}. */
+  @NaturalId(mutable = true)
+  @Column(name = "nic_key", unique = true)
+  @Setter(AccessLevel.NONE)
+  private Long nicKey;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "parent_customer_id")
   @JsonBackReference
   private Customer parentCustomer;
 
   @OneToMany(mappedBy = "parentCustomer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CUSTOMERS)
   @JsonManagedReference
   private List<Customer> familyMembers = new ArrayList<>();
 
@@ -51,6 +66,7 @@ public class Customer {
       cascade = CascadeType.ALL,
       fetch = FetchType.LAZY,
       orphanRemoval = true)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CUSTOMERS)
   @JsonManagedReference
   private Set<MobileNumber> mobileNumbers = new HashSet<>();
 
@@ -59,6 +75,7 @@ public class Customer {
       cascade = CascadeType.ALL,
       fetch = FetchType.LAZY,
       orphanRemoval = true)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CUSTOMERS)
   @JsonManagedReference
   private Set<Address> addresses = new HashSet<>();
 
@@ -68,8 +85,26 @@ public class Customer {
   @Column(name = "updated_at")
   private LocalDateTime updatedAt;
 
+  /** When the business retired the customer; retired customers are archived after a while. */
+  @Column(name = "retired_at")
+  private LocalDateTime retiredAt;
+
+  /**
+   * Sets the NIC and its key.
+   *
+   * @throws com.example.customer_management_system.utils.InvalidNicException if the NIC is
+   *     malformed
+   */
+  public void setNicNumber(String nicNumber) {
+    this.nicNumber = NicCodec.normalize(nicNumber);
+    this.nicKey = NicCodec.encode(this.nicNumber);
+  }
+
   @PrePersist
   protected void onCreate() {
+    if (nicKey == null && nicNumber != null) {
+      setNicNumber(nicNumber); // Built without the setter
+    }
     createdAt = LocalDateTime.now();
     updatedAt = LocalDateTime.now();
   }
@@ -82,6 +117,6 @@ public class Customer {
   public Customer(String name, LocalDate dateOfBirth, String nicNumber) {
     this.name = name;
     this.dateOfBirth = dateOfBirth;
-    this.nicNumber = nicNumber;
+    setNicNumber(nicNumber);
   }
 }
@@ -2,12 +2,119 @@ package com.example.customer_management_system.domain.repository;
 
 import com.example.customer_management_system.domain.entities.BulkProcessing;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface BulkProcessingRepository extends JpaRepository<BulkProcessing, Long> {
 
   Optional<BulkProcessing> findByJobId(String jobId);
+
+  /**
+   * Locks the next job that is queued or whose lease has expired by the database clock: highest
+   * priority first, then the smallest upload, then the oldest. Jobs of tenants already running
+   * {@code tenantCap} jobs are left waiting, and jobs locked by another node's claim are skipped
+   * rather than waited for. Must run inside a transaction.
+   *
+   * <p>The running jobs are counted from committed rows, so two claims running at once can both
+   * pass the cap; callers hold {@link SchedulerLockRepository#BULK_JOB_CLAIM} to keep it exact.
+   */
+  @Query(
+      value =
+          "SELECT * FROM bulk_processing j "
+              + "WHERE (j.status = 'QUEUED' "
+              + "OR (j.status = 'PROCESSING' AND j.lease_expires_at < CURRENT_TIMESTAMP(6))) "
+              + "AND (SELECT COUNT(*) FROM bulk_processing r WHERE r.tenant_id = j.tenant_id "
+              + "AND r.status = 'PROCESSING' AND r.lease_expires_at >= CURRENT_TIMESTAMP(6)) < :tenantCap "
+              + "ORDER BY j.priority DESC, j.upload_bytes, j.id LIMIT 1 FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  Optional<BulkProcessing> lockNextClaimable(@Param("tenantCap") int tenantCap);
+
+  /**
+   * Extends the lease by {@code leaseMicros} from now by the database clock, so nodes with skewed
+   * clocks agree on when it expires. Pending entity changes are flushed first, so a claim can set
+   * the owner and attempt on the entity and take the lease here in the same transaction.
+   *
+   * <p>This and the other lease-checked updates identify the claim by owner and attempt, so a node
+   * that re-claims its own expired job fences out its earlier run as well.
+   *
+   * @return 0 if the claim was taken over
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true)
+  @Query(
+      value =
+          "UPDATE bulk_processing SET heartbeat_at = CURRENT_TIMESTAMP(6), "
+              + "lease_expires_at = TIMESTAMPADD(MICROSECOND, :leaseMicros, CURRENT_TIMESTAMP(6)) "
+              + "WHERE job_id = :jobId AND lease_owner = :owner AND attempts = :attempt",
+      nativeQuery = true)
+  int renewLease(
+      @Param("jobId") String jobId,
+      @Param("owner") String owner,
+      @Param("attempt") int attempt,
+      @Param("leaseMicros") long leaseMicros);
+
+  /**
+   * Checks, inside a transaction that writes on behalf of a job, that the claim is still current.
+   * The row lock taken here orders the transaction against a takeover, so run it last to hold the
+   * lock briefly.
+   *
+   * @return 0 if the claim was taken over; the caller must roll back
+   */
+  @Transactional
+  @Modifying
+  @Query(
+      value =
+          "UPDATE bulk_processing SET updated_at = CURRENT_TIMESTAMP(6) "
+              + "WHERE id = :id AND lease_owner = :owner AND attempts = :attempt",
+      nativeQuery = true)
+  int holdLease(
+      @Param("id") Long id, @Param("owner") String owner, @Param("attempt") int attempt);
+
+  /** @return 0 if the claim was taken over */
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE BulkProcessing j SET j.totalSheets = :totalSheets, j.processedSheets = :processedSheets, "
+          + "j.totalRecords = :totalRecords, j.processedRecords = :processedRecords, "
+          + "j.successRecords = :successRecords, j.failedRecords = :failedRecords, "
+          + "j.currentBatchSize = :currentBatchSize, j.updatedAt = :now "
+          + "WHERE j.jobId = :jobId AND j.leaseOwner = :owner AND j.attempts = :attempt")
+  int updateProgress(
+      @Param("jobId") String jobId,
+      @Param("owner") String owner,
+      @Param("attempt") int attempt,
+      @Param("totalSheets") int totalSheets,
+      @Param("processedSheets") int processedSheets,
+      @Param("totalRecords") int totalRecords,
+      @Param("processedRecords") int processedRecords,
+      @Param("successRecords") int successRecords,
+      @Param("failedRecords") int failedRecords,
+      @Param("currentBatchSize") int currentBatchSize,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Records the final status and gives up the lease.
+   *
+   * @return 0 if the claim was taken over
+   */
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE BulkProcessing j SET j.status = :status, j.errorMessage = :errorMessage, "
+          + "j.leaseOwner = NULL, j.leaseExpiresAt = NULL, j.updatedAt = :now "
+          + "WHERE j.jobId = :jobId AND j.leaseOwner = :owner AND j.attempts = :attempt")
+  int release(
+      @Param("jobId") String jobId,
+      @Param("owner") String owner,
+      @Param("attempt") int attempt,
+      @Param("status") BulkProcessing.JobStatus status,
+      @Param("errorMessage") String errorMessage,
+      @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,13 @@
+package com.example.customer_management_system.domain.repository;
+
+import com.example.customer_management_system.domain.entities.BulkProcessingSheet;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BulkProcessingSheetRepository extends JpaRepository<BulkProcessingSheet, Long> {
+
+  List<BulkProcessingSheet> findByBulkProcessingId(Long bulkProcessingId);
+}
@@ -0,0 +1,92 @@
+package com.example.customer_management_system.domain.repository;
+
+import com.example.customer_management_system.model.CustomerChangeDTO;
+import com.example.customer_management_system.model.CustomerChangeDTO.ChangeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The {@code customer_changes} outbox. Writes join the caller's transaction, so a change is
+ * visible in the feed exactly when the customer row it describes is. Change times come from the
+ * database clock, so nodes with skewed clocks still record them in one time line.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerChangeRepository {
+
+  private static final int BATCH_SIZE = 500;
+  private static final int FETCH_SIZE = 500;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /** Appends one change per customer, in JDBC batches. */
+  public void record(ChangeType changeType, Collection<Long> customerIds) {
+    if (customerIds.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO customer_changes (customer_id, change_type, changed_at) "
+            + "VALUES (?, ?, CURRENT_TIMESTAMP(6))",
+        customerIds,
+        BATCH_SIZE,
+        (ps, customerId) -> {
+          ps.setLong(1, customerId);
+          ps.setString(2, changeType.name());
+        });
+  }
+
+  /**
+   * Streams changes after {@code since} in sequence order through a cursor. Paging is by key, so
+   * the cost depends on the number of changes returned, not on the size of the table.
+   *
+   * <p>Sequences are taken when a change is written but become visible when its transaction
+   * commits, so a lower sequence can appear after a higher one. The stream therefore stops at the
+   * first change recorded less than {@code settleTime} ago by the database clock; until then,
+   * transactions still holding lower sequences have had time to commit. This only holds on the
+   * primary: a lagging replica can be missing a lower sequence long after it settled there.
+   *
+   * @param since the last sequence the consumer has seen
+   * @param settleTime changes younger than this are left for a later request
+   * @param limit the maximum number of changes
+   */
+  public void streamSince(
+      long since, Duration settleTime, int limit, Consumer<CustomerChangeDTO> consumer) {
+    jdbcTemplate.query(
+        con -> {
+          PreparedStatement ps =
+              con.prepareStatement(
+                  "SELECT id, customer_id, change_type, changed_at, "
+                      + "changed_at < TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(6)) AS settled "
+                      + "FROM customer_changes WHERE id > ? ORDER BY id LIMIT ?");
+          ps.setFetchSize(FETCH_SIZE);
+          ps.setLong(1, -TimeUnit.NANOSECONDS.toMicros(settleTime.toNanos()));
+          ps.setLong(2, since);
+          ps.setInt(3, limit);
+          return ps;
+        },
+        (ResultSetExtractor<Void>) rs -> {
+          while (rs.next()) {
+            if (!rs.getBoolean("settled")) {
+              break;
+            }
+            LocalDateTime changedAt = rs.getTimestamp("changed_at").toLocalDateTime();
+            consumer.accept(
+                new CustomerChangeDTO(
+                    rs.getLong("id"),
+                    rs.getLong("customer_id"),
+                    ChangeType.valueOf(rs.getString("change_type")),
+                    changedAt));
+          }
+          return null;
+        });
+  }
+}
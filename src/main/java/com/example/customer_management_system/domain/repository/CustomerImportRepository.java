@@ -0,0 +1,188 @@
+package com.example.customer_management_system.domain.repository;
+
+import com.example.customer_management_system.domain.entities.Address;
+import com.example.customer_management_system.domain.entities.Customer;
+import com.example.customer_management_system.domain.entities.MobileNumber;
+import com.example.customer_management_system.utils.NicCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched JDBC writes for the bulk import. These rows bypass Hibernate, so callers evict any
+ * cached customers they touch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerImportRepository {
+
+  private static final int BATCH_SIZE = 500;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  /**
+   * Inserts new customers in JDBC batches and sets their generated ids. Hibernate would send one
+   * INSERT per customer, since it has to read back each IDENTITY id.
+   */
+  public void insertCustomers(List<Customer> customers) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.execute(
+        (ConnectionCallback<Void>)
+            connection -> {
+              try (PreparedStatement insert =
+                  connection.prepareStatement(
+                      "INSERT INTO customers "
+                          + "(name, date_of_birth, nic_number, nic_key, created_at, updated_at) "
+                          + "VALUES (?, ?, ?, ?, ?, ?)",
+                      Statement.RETURN_GENERATED_KEYS)) {
+                for (int start = 0; start < customers.size(); start += BATCH_SIZE) {
+                  List<Customer> batch =
+                      customers.subList(start, Math.min(start + BATCH_SIZE, customers.size()));
+                  for (Customer customer : batch) {
+                    insert.setString(1, customer.getName());
+                    insert.setObject(2, customer.getDateOfBirth());
+                    insert.setString(3, customer.getNicNumber());
+                    insert.setLong(4, customer.getNicKey());
+                    insert.setTimestamp(5, now);
+                    insert.setTimestamp(6, now);
+                    insert.addBatch();
+                  }
+                  insert.executeBatch();
+                  // Keys come back in the order the rows were added
+                  try (ResultSet keys = insert.getGeneratedKeys()) {
+                    for (Customer customer : batch) {
+                      if (!keys.next()) {
+                        throw new SQLException("The driver returned fewer ids than customers inserted");
+                      }
+                      customer.setId(keys.getLong(1));
+                    }
+                  }
+                }
+              }
+              return null;
+            });
+  }
+
+  /** Inserts the numbers of already saved customers. */
+  public void insertMobileNumbers(List<MobileNumber> mobileNumbers) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO mobile_numbers (customer_id, mobile_number, created_at) VALUES (?, ?, ?)",
+        mobileNumbers,
+        BATCH_SIZE,
+        (ps, mobile) -> {
+          ps.setLong(1, mobile.getCustomer().getId());
+          ps.setString(2, mobile.getMobileNumber());
+          ps.setTimestamp(3, now);
+        });
+  }
+
+  /** Inserts the addresses of already saved customers. */
+  public void insertAddresses(List<Address> addresses) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO addresses "
+            + "(customer_id, address_line_1, address_line_2, city_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)",
+        addresses,
+        BATCH_SIZE,
+        (ps, address) -> {
+          ps.setLong(1, address.getCustomer().getId());
+          ps.setString(2, address.getAddressLine1());
+          ps.setString(3, address.getAddressLine2());
+          ps.setLong(4, address.getCity().getId());
+          ps.setTimestamp(5, now);
+          ps.setTimestamp(6, now);
+        });
+  }
+
+  /** @return customer ids keyed by the given NIC strings, for the NICs that exist in any format */
+  public Map<String, Long> findIdsByNicNumbers(Collection<String> nicNumbers) {
+    Map<String, Long> ids = new HashMap<>();
+    if (nicNumbers.isEmpty()) {
+      return ids;
+    }
+    Map<Long, List<String>> nicNumbersByKey = new HashMap<>();
+    for (String nicNumber : nicNumbers) {
+      nicNumbersByKey
+          .computeIfAbsent(NicCodec.encode(nicNumber), key -> new ArrayList<>())
+          .add(nicNumber);
+    }
+    namedParameterJdbcTemplate.query(
+        "SELECT id, nic_key FROM customers WHERE nic_key IN (:nicKeys)",
+        Collections.singletonMap("nicKeys", nicNumbersByKey.keySet()),
+        rs -> {
+          long id = rs.getLong("id");
+          nicNumbersByKey.get(rs.getLong("nic_key")).forEach(nicNumber -> ids.put(nicNumber, id));
+        });
+    return ids;
+  }
+
+  /** @return those of the given NIC keys that belong to a customer */
+  public Set<Long> findExistingNicKeys(Collection<Long> nicKeys) {
+    Set<Long> existing = new HashSet<>();
+    if (nicKeys.isEmpty()) {
+      return existing;
+    }
+    namedParameterJdbcTemplate.query(
+        "SELECT nic_key FROM customers WHERE nic_key IN (:nicKeys)",
+        Collections.singletonMap("nicKeys", nicKeys),
+        rs -> {
+          existing.add(rs.getLong("nic_key"));
+        });
+    return existing;
+  }
+
+  /**
+   * Sets the parent of customers that do not have one yet.
+   *
+   * @param parentIds parent customer ids keyed by child customer id
+   * @return the ids of the customers that were linked
+   */
+  public List<Long> linkParents(Map<Long, Long> parentIds) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Map.Entry<Long, Long>> links = new ArrayList<>(parentIds.entrySet());
+    int[][] updated =
+        jdbcTemplate.batchUpdate(
+            "UPDATE customers SET parent_customer_id = ?, updated_at = ? "
+                + "WHERE id = ? AND parent_customer_id IS NULL",
+            links,
+            BATCH_SIZE,
+            (ps, link) -> {
+              ps.setLong(1, link.getValue());
+              ps.setTimestamp(2, now);
+              ps.setLong(3, link.getKey());
+            });
+
+    List<Long> linked = new ArrayList<>();
+    int index = 0;
+    for (int[] batch : updated) {
+      for (int count : batch) {
+        // Drivers that cannot report per-statement counts return SUCCESS_NO_INFO
+        if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+          linked.add(links.get(index).getKey());
+        }
+        index++;
+      }
+    }
+    return linked;
+  }
+}
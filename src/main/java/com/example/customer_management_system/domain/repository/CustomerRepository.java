@@ -1,14 +1,58 @@
 package com.example.customer_management_system.domain.repository;
 
 import com.example.customer_management_system.domain.entities.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
-  Optional<Customer> findByNicNumber(String nicNumber);
+public interface CustomerRepository
+    extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
 
-  boolean existsByNicNumber(String nicNumber);
+  /** @return the next customers after {@code afterId}, in id order, for keyset pagination */
+  @Query("SELECT c FROM Customer c WHERE c.id > :afterId ORDER BY c.id")
+  List<Customer> findWindowAfter(@Param("afterId") long afterId, Pageable window);
+
+  /**
+   * Loads the whole household of a customer in one statement. A single recursive walk first climbs
+   * to the topmost ancestor (phase {@code U}), turns there, and then descends through every family
+   * member (phase {@code D}); only the descent is returned. Both phases stop at {@code maxDepth}
+   * levels, and the descent skips any customer already on the current path, so a corrupt parent
+   * cycle cannot recurse forever. Each step is a primary key or {@code parent_customer_id} index
+   * lookup. Rows are ordered by depth, parents before their family members; the row at depth 0 is
+   * the root of the returned tree.
+   */
+  @Query(
+      value =
+          "WITH RECURSIVE walk (id, name, nic_number, date_of_birth, parent_id, phase, depth, path)"
+              + " AS ("
+              + "  SELECT id, name, nic_number, date_of_birth, parent_customer_id, 'U', 0,"
+              + "         CAST(CONCAT('/', id, '/') AS CHAR(4000))"
+              + "  FROM customers WHERE id = :id"
+              + "  UNION ALL"
+              // Climbing: step to the parent; with none left, or at the limit, turn and descend
+              + "  SELECT c.id, c.name, c.nic_number, c.date_of_birth, c.parent_customer_id,"
+              + "         CASE WHEN p.id IS NULL AND k.id IS NULL THEN 'D' ELSE w.phase END,"
+              + "         CASE WHEN p.id IS NULL AND k.id IS NULL THEN 0 ELSE w.depth + 1 END,"
+              + "         CASE WHEN k.id IS NULL THEN CONCAT('/', c.id, '/')"
+              + "              ELSE CONCAT(w.path, c.id, '/') END"
+              + "  FROM walk w"
+              + "  LEFT JOIN customers p"
+              + "    ON w.phase = 'U' AND p.id = w.parent_id AND w.depth < :maxDepth"
+              // Descending: step to every family member not already on the path
+              + "  LEFT JOIN customers k"
+              + "    ON w.phase = 'D' AND k.parent_customer_id = w.id AND w.depth < :maxDepth"
+              + "   AND LOCATE(CONCAT('/', k.id, '/'), w.path) = 0"
+              + "  JOIN customers c ON c.id = COALESCE(k.id, p.id, w.id)"
+              + "  WHERE w.phase = 'U' OR k.id IS NOT NULL"
+              + ") "
+              + "SELECT id, name, nic_number AS nicNumber, date_of_birth AS dateOfBirth,"
+              + "       parent_id AS parentId, depth"
+              + " FROM walk WHERE phase = 'D' ORDER BY depth, id",
+      nativeQuery = true)
+  List<FamilyTreeRow> findHousehold(@Param("id") Long id, @Param("maxDepth") int maxDepth);
 }
@@ -0,0 +1,12 @@
+package com.example.customer_management_system.domain.repository;
+
+import com.example.customer_management_system.domain.entities.Customer;
+
+import java.util.Optional;
+
+/** NIC lookups resolved through the natural-id cache instead of a derived query. */
+public interface CustomerRepositoryCustom {
+  Optional<Customer> findByNicNumber(String nicNumber);
+
+  boolean existsByNicNumber(String nicNumber);
+}
@@ -0,0 +1,33 @@
+package com.example.customer_management_system.domain.repository;
+
+import com.example.customer_management_system.domain.entities.Customer;
+import com.example.customer_management_system.utils.NicCodec;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /** Matches either format of the NIC; a malformed NIC throws InvalidNicException. */
+  @Override
+  public Optional<Customer> findByNicNumber(String nicNumber) {
+    return session().bySimpleNaturalId(Customer.class).loadOptional(NicCodec.encode(nicNumber));
+  }
+
+  @Override
+  public boolean existsByNicNumber(String nicNumber) {
+    // Resolves NIC key -> id only; the customer row itself is not loaded
+    return session().bySimpleNaturalId(Customer.class).getReference(NicCodec.encode(nicNumber))
+        != null;
+  }
+
+  private Session session() {
+    return entityManager.unwrap(Session.class);
+  }
+}
@@ -0,0 +1,170 @@
+package com.example.customer_management_system.domain.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The {@code customer_stats} counters. Deltas join the caller's transaction, so the counters move
+ * exactly when the rows they count do. A counter is spread over {@value #SLOTS} rows and each
+ * transaction adds to a random one, so writers updating the same counter seldom queue on a lock.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerStatsRepository {
+
+  public static final String TOTAL = "total";
+  public static final String BIRTH_YEAR = "birth_year";
+  public static final String CITY = "city";
+  public static final String COUNTRY = "country";
+  public static final String IMPORT_DAY = "import_day";
+
+  static final int SLOTS = 8;
+  private static final int BATCH_SIZE = 500;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  /** Adds the deltas to one random slot of their counters. */
+  public void add(Map<Key, Long> deltas) {
+    add(deltas, ThreadLocalRandom.current().nextInt(SLOTS));
+  }
+
+  /**
+   * Adds the deltas to one slot of their counters, creating the rows that do not exist yet.
+   * Counters are locked in key order, so two transactions cannot deadlock on them.
+   */
+  public void add(Map<Key, Long> deltas, int slot) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+    List<Map.Entry<Key, Long>> rows = new ArrayList<>(deltas.entrySet());
+    rows.sort(Map.Entry.comparingByKey());
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO customer_stats (stat_group, stat_key, slot, stat_value) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE stat_value = stat_value + VALUES(stat_value)",
+        rows,
+        BATCH_SIZE,
+        (ps, row) -> {
+          ps.setString(1, row.getKey().getGroup());
+          ps.setString(2, row.getKey().getKey());
+          ps.setInt(3, slot);
+          ps.setLong(4, row.getValue());
+        });
+  }
+
+  /** @return every counter, its slots summed */
+  public Map<Key, Long> findAll() {
+    return sum(
+        "SELECT stat_group, stat_key, SUM(stat_value) FROM customer_stats "
+            + "GROUP BY stat_group, stat_key",
+        Collections.emptyMap());
+  }
+
+  /** @return every counter, its slots summed, with import volumes starting at the given day */
+  public Map<Key, Long> findAll(LocalDate importsSince) {
+    Map<String, Object> params = new HashMap<>();
+    params.put("importDay", IMPORT_DAY);
+    params.put("since", importsSince.toString());
+    return sum(
+        "SELECT stat_group, stat_key, SUM(stat_value) FROM customer_stats "
+            + "WHERE stat_group <> :importDay OR stat_key >= :since GROUP BY stat_group, stat_key",
+        params);
+  }
+
+  /** Recounts every counter from the tables it describes. This reads them in full. */
+  public Map<Key, Long> countAll() {
+    Map<Key, Long> counts = countCustomers(null);
+    counts.putAll(countImports(null));
+    return counts;
+  }
+
+  /**
+   * Counts the given customers as the customer counters do, or every customer if {@code ids} is
+   * null.
+   */
+  public Map<Key, Long> countCustomers(Collection<Long> ids) {
+    Map<String, Object> params = Collections.singletonMap("ids", ids);
+    Map<Key, Long> counts = new HashMap<>();
+    counts.putAll(sum("SELECT 'total', '', COUNT(*) FROM customers" + where("id", ids), params));
+    counts.putAll(
+        sum(
+            "SELECT 'birth_year', CONCAT('', YEAR(date_of_birth)), COUNT(*) FROM customers"
+                + where("id", ids)
+                + " GROUP BY CONCAT('', YEAR(date_of_birth))",
+            params));
+    counts.putAll(
+        sum(
+            "SELECT 'city', CONCAT('', city_id), COUNT(DISTINCT customer_id) FROM addresses"
+                + where("customer_id", ids)
+                + " GROUP BY CONCAT('', city_id)",
+            params));
+    counts.putAll(
+        sum(
+            "SELECT 'country', CONCAT('', c.country_id), COUNT(DISTINCT a.customer_id) "
+                + "FROM addresses a JOIN cities c ON c.id = a.city_id"
+                + where("a.customer_id", ids)
+                + " GROUP BY CONCAT('', c.country_id)",
+            params));
+    return counts;
+  }
+
+  /**
+   * Counts the rows imported by the given bulk jobs per upload day, or by every job if
+   * {@code jobIds} is null.
+   */
+  public Map<Key, Long> countImports(Collection<Long> jobIds) {
+    // Sheet checkpoints commit with the rows they count, unlike the job totals rolled up from them
+    return sum(
+        "SELECT 'import_day', CONCAT('', DATE(j.created_at)), "
+            + "SUM(COALESCE(s.success_records, j.success_records, 0)) "
+            + "FROM bulk_processing j "
+            + "LEFT JOIN (SELECT bulk_processing_id, SUM(success_records) AS success_records "
+            + "FROM bulk_processing_sheets"
+            + where("bulk_processing_id", jobIds)
+            + " GROUP BY bulk_processing_id) s "
+            + "ON s.bulk_processing_id = j.id"
+            + where("j.id", jobIds)
+            + " GROUP BY CONCAT('', DATE(j.created_at))",
+        Collections.singletonMap("ids", jobIds));
+  }
+
+  private static String where(String column, Collection<Long> ids) {
+    return ids == null ? "" : " WHERE " + column + " IN (:ids)";
+  }
+
+  private Map<Key, Long> sum(String sql, Map<String, ?> params) {
+    Map<Key, Long> counts = new HashMap<>();
+    namedParameterJdbcTemplate.query(
+        sql,
+        params,
+        rs -> {
+          counts.put(new Key(rs.getString(1), rs.getString(2)), rs.getLong(3));
+        });
+    return counts;
+  }
+
+  /** Identifies a counter: a group such as {@link #CITY} and a key within it, such as a city id. */
+  @Value
+  public static class Key implements Comparable<Key> {
+    String group;
+    String key;
+
+    @Override
+    public int compareTo(Key other) {
+      int byGroup = group.compareTo(other.group);
+      return byGroup != 0 ? byGroup : key.compareTo(other.key);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.customer_management_system.domain.repository;
+
+import java.time.LocalDate;
+
+/** One household member as returned by {@link CustomerRepository#findHousehold(Long, int)}. */
+public interface FamilyTreeRow {
+  Long getId();
+
+  String getName();
+
+  String getNicNumber();
+
+  LocalDate getDateOfBirth();
+
+  Long getParentId();
+
+  Integer getDepth();
+}
@@ -0,0 +1,141 @@
+package com.example.customer_management_system.domain.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Moves retired customers and finished bulk jobs into the {@code *_archive} tables. Candidates are
+ * found by key ranges outside a transaction; a batch is then locked, copied and deleted in one
+ * short transaction. The lock re-checks the conditions, so rows changed or archived by another
+ * node in the meantime are left alone.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RetentionRepository {
+
+  private static final String FINISHED = "('COMPLETED', 'FAILED', 'CANCELLED')";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  /** @return ids above {@code afterId} of customers retired before the cutoff, in id order */
+  public List<Long> findRetiredCustomers(long afterId, LocalDateTime retiredBefore, int limit) {
+    return jdbcTemplate.queryForList(
+        "SELECT id FROM customers WHERE retired_at < ? AND id > ? ORDER BY id LIMIT ?",
+        Long.class,
+        Timestamp.valueOf(retiredBefore),
+        afterId,
+        limit);
+  }
+
+  /**
+   * Locks those of the given customers that can be archived: still retired before the cutoff and
+   * no longer the parent of any customer. A retired parent follows once its family members are
+   * archived or moved.
+   *
+   * @return the locked ids
+   */
+  public List<Long> lockArchivableCustomers(Collection<Long> ids, LocalDateTime retiredBefore) {
+    return namedParameterJdbcTemplate.queryForList(
+        "SELECT id FROM customers c WHERE id IN (:ids) AND retired_at < :retiredBefore "
+            + "AND NOT EXISTS (SELECT 1 FROM customers f WHERE f.parent_customer_id = c.id) "
+            + "FOR UPDATE",
+        params(ids).addValue("retiredBefore", Timestamp.valueOf(retiredBefore)),
+        Long.class);
+  }
+
+  /** @return the parents of the given customers, whose family lists change with them */
+  public List<Long> findParentIds(Collection<Long> ids) {
+    return namedParameterJdbcTemplate.queryForList(
+        "SELECT DISTINCT parent_customer_id FROM customers "
+            + "WHERE id IN (:ids) AND parent_customer_id IS NOT NULL",
+        params(ids),
+        Long.class);
+  }
+
+  /** Copies locked customers with their numbers and addresses to the archive and deletes them. */
+  public void archiveCustomers(Collection<Long> ids, LocalDateTime archivedAt) {
+    MapSqlParameterSource params =
+        params(ids).addValue("archivedAt", Timestamp.valueOf(archivedAt));
+    namedParameterJdbcTemplate.update(
+        "INSERT INTO mobile_numbers_archive (id, customer_id, mobile_number, created_at) "
+            + "SELECT id, customer_id, mobile_number, created_at FROM mobile_numbers "
+            + "WHERE customer_id IN (:ids)",
+        params);
+    namedParameterJdbcTemplate.update(
+        "INSERT INTO addresses_archive "
+            + "(id, customer_id, address_line_1, address_line_2, city_id, created_at, updated_at) "
+            + "SELECT id, customer_id, address_line_1, address_line_2, city_id, created_at, "
+            + "updated_at FROM addresses WHERE customer_id IN (:ids)",
+        params);
+    namedParameterJdbcTemplate.update(
+        "INSERT INTO customers_archive (id, name, date_of_birth, nic_number, nic_key, "
+            + "parent_customer_id, created_at, updated_at, retired_at, archived_at) "
+            + "SELECT id, name, date_of_birth, nic_number, nic_key, parent_customer_id, "
+            + "created_at, updated_at, retired_at, :archivedAt FROM customers WHERE id IN (:ids)",
+        params);
+    namedParameterJdbcTemplate.update(
+        "DELETE FROM mobile_numbers WHERE customer_id IN (:ids)", params);
+    namedParameterJdbcTemplate.update("DELETE FROM addresses WHERE customer_id IN (:ids)", params);
+    namedParameterJdbcTemplate.update("DELETE FROM customers WHERE id IN (:ids)", params);
+  }
+
+  /** @return ids above {@code afterId} of jobs that finished before the cutoff, in id order */
+  public List<Long> findFinishedJobs(long afterId, LocalDateTime finishedBefore, int limit) {
+    return jdbcTemplate.queryForList(
+        "SELECT id FROM bulk_processing WHERE id > ? AND status IN " + FINISHED
+            + " AND updated_at < ? ORDER BY id LIMIT ?",
+        Long.class,
+        afterId,
+        Timestamp.valueOf(finishedBefore),
+        limit);
+  }
+
+  /** Locks those of the given jobs that are still finished before the cutoff. */
+  public List<Long> lockFinishedJobs(Collection<Long> ids, LocalDateTime finishedBefore) {
+    return namedParameterJdbcTemplate.queryForList(
+        "SELECT id FROM bulk_processing WHERE id IN (:ids) AND status IN " + FINISHED
+            + " AND updated_at < :finishedBefore FOR UPDATE",
+        params(ids).addValue("finishedBefore", Timestamp.valueOf(finishedBefore)),
+        Long.class);
+  }
+
+  /** Copies locked jobs with their sheet checkpoints to the archive and deletes them. */
+  public void archiveJobs(Collection<Long> ids, LocalDateTime archivedAt) {
+    MapSqlParameterSource params =
+        params(ids).addValue("archivedAt", Timestamp.valueOf(archivedAt));
+    namedParameterJdbcTemplate.update(
+        "INSERT INTO bulk_processing_sheets_archive (id, bulk_processing_id, sheet_key, "
+            + "total_records, processed_records, success_records, failed_records, completed_at, "
+            + "created_at, updated_at) "
+            + "SELECT id, bulk_processing_id, sheet_key, total_records, processed_records, "
+            + "success_records, failed_records, completed_at, created_at, updated_at "
+            + "FROM bulk_processing_sheets WHERE bulk_processing_id IN (:ids)",
+        params);
+    namedParameterJdbcTemplate.update(
+        "INSERT INTO bulk_processing_archive (id, job_id, tenant_id, status, total_records, "
+            + "processed_records, success_records, failed_records, total_sheets, "
+            + "processed_sheets, attempts, upload_bytes, error_message, created_at, updated_at, "
+            + "archived_at) "
+            + "SELECT id, job_id, tenant_id, status, total_records, processed_records, "
+            + "success_records, failed_records, total_sheets, processed_sheets, attempts, "
+            + "upload_bytes, error_message, created_at, updated_at, :archivedAt "
+            + "FROM bulk_processing WHERE id IN (:ids)",
+        params);
+    namedParameterJdbcTemplate.update(
+        "DELETE FROM bulk_processing_sheets WHERE bulk_processing_id IN (:ids)", params);
+    namedParameterJdbcTemplate.update("DELETE FROM bulk_processing WHERE id IN (:ids)", params);
+  }
+
+  private static MapSqlParameterSource params(Collection<Long> ids) {
+    return new MapSqlParameterSource("ids", ids);
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.customer_management_system.domain.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Row locks on {@code scheduler_locks} that keep a scheduled job to one node at a time. The lock
+ * belongs to the caller's transaction and is released when it ends, also if the node dies.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SchedulerLockRepository {
+
+  public static final String STATS_RECONCILE = "customer-stats-reconcile";
+  public static final String BULK_JOB_CLAIM = "bulk-job-claim";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Locks the named row without waiting. Must run inside a transaction.
+   *
+   * @return false if another transaction holds the lock
+   */
+  public boolean tryLock(String lockName) {
+    return !jdbcTemplate
+        .queryForList(
+            "SELECT lock_name FROM scheduler_locks WHERE lock_name = ? FOR UPDATE SKIP LOCKED",
+            String.class,
+            lockName)
+        .isEmpty();
+  }
+
+  /** Locks the named row, waiting for another holder to finish. Must run inside a transaction. */
+  public void lock(String lockName) {
+    jdbcTemplate.queryForList(
+        "SELECT lock_name FROM scheduler_locks WHERE lock_name = ? FOR UPDATE", String.class, lockName);
+  }
+}
@@ -17,6 +17,9 @@ public class BulkUploadResponse {
     private Integer processedRecords;
     private Integer successRecords;
     private Integer failedRecords;
+    private Integer totalSheets;
+    private Integer processedSheets;
+    private Integer currentBatchSize;
 
     public BulkUploadResponse(String jobId, String status, String message) {
         this.jobId = jobId;
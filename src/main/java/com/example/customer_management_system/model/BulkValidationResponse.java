@@ -0,0 +1,49 @@
+package com.example.customer_management_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/** Row verdicts of a dry-run bulk upload ({@code mode=validate}). Nothing is written. */
+@NoArgsConstructor
+@Getter
+@Setter
+public class BulkValidationResponse {
+    // VALID, INVALID, or FAILED if the upload could not be read
+    private String status;
+    private String message;
+    private int totalRows;
+    private int validRows;
+    private int invalidRows;
+    private Map<Verdict, Integer> invalidRowsByVerdict = new EnumMap<>(Verdict.class);
+    // The first rejected rows, up to bulk.validation.max-errors
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public BulkValidationResponse(String status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    public enum Verdict {
+        MISSING_FIELDS, INVALID_VALUE, DUPLICATE_IN_UPLOAD, ALREADY_EXISTS
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class RowError {
+        private String sheet;
+        // 1-based, as shown by spreadsheet applications
+        private int row;
+        private Verdict verdict;
+        private String message;
+    }
+}
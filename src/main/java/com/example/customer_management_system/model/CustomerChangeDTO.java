@@ -0,0 +1,24 @@
+package com.example.customer_management_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/** One entry of the customer change feed. Consumers resume after the last {@code sequence}. */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class CustomerChangeDTO {
+    private Long sequence;
+    private Long customerId;
+    private ChangeType changeType;
+    private LocalDateTime changedAt;
+
+    public enum ChangeType {
+        CREATED, UPDATED, ARCHIVED
+    }
+}
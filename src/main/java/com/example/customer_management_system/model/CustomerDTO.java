@@ -33,6 +33,8 @@ public class CustomerDTO {
     private LocalDateTime createdAt;
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime retiredAt;
 
     public CustomerDTO(String name, LocalDate dateOfBirth, String nicNumber) {
         this.name = name;
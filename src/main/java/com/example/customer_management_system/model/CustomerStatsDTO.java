@@ -0,0 +1,47 @@
+package com.example.customer_management_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Dashboard figures, read from the aggregate counters rather than computed from the customers. */
+@NoArgsConstructor
+@Getter
+@Setter
+public class CustomerStatsDTO {
+    private long totalCustomers;
+    // Age this year, by band; the bands are in ascending order
+    private Map<String, Long> ageBands = new LinkedHashMap<>();
+    private List<CityCount> cities = new ArrayList<>();
+    private List<CountryCount> countries = new ArrayList<>();
+    // Rows imported by bulk jobs, by the day the job was uploaded
+    private Map<LocalDate, Long> importedRowsByDay = new LinkedHashMap<>();
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class CityCount {
+        private Long cityId;
+        private String city;
+        private String country;
+        private long customers;
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class CountryCount {
+        private Long countryId;
+        private String country;
+        private long customers;
+    }
+}
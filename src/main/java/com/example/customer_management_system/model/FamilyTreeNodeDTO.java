@@ -0,0 +1,33 @@
+package com.example.customer_management_system.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class FamilyTreeNodeDTO {
+    private Long id;
+    private String name;
+    private String nicNumber;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate dateOfBirth;
+    private Integer depth;
+    private List<FamilyTreeNodeDTO> familyMembers = new ArrayList<>();
+
+    public FamilyTreeNodeDTO(Long id, String name, String nicNumber, LocalDate dateOfBirth, Integer depth) {
+        this.id = id;
+        this.name = name;
+        this.nicNumber = nicNumber;
+        this.dateOfBirth = dateOfBirth;
+        this.depth = depth;
+    }
+}
@@ -13,4 +13,9 @@ public class GlobalExceptionHandler {
   public ResponseEntity<String> handleNotFound(EntityNotFoundException ex) {
     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
   }
+
+  @ExceptionHandler(InvalidNicException.class)
+  public ResponseEntity<String> handleInvalidNic(InvalidNicException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+  }
 }
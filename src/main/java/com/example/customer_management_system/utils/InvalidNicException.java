@@ -0,0 +1,7 @@
+package com.example.customer_management_system.utils;
+
+public class InvalidNicException extends IllegalArgumentException {
+  public InvalidNicException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.customer_management_system.utils;
+
+/**
+ * Normalizes NIC numbers and packs them into a numeric key. Both formats are accepted: the old
+ * 9 digits followed by V or X ({@code YYDDDSSSC}) and the new 12 digits ({@code YYYYDDDSSSSC}).
+ * An old number maps to the new one for the same person, {@code 19 + YYDDD + 0 + SSSC}, so both
+ * spellings of a NIC get the same key. The V/X letter is not part of the identity.
+ */
+public final class NicCodec {
+
+  private NicCodec() {}
+
+  /**
+   * Removes whitespace and upper-cases the letter; the format entered is kept.
+   *
+   * @throws InvalidNicException if the value is in neither format
+   */
+  public static String normalize(String nicNumber) {
+    if (nicNumber == null) {
+      throw new InvalidNicException("NIC number is mandatory");
+    }
+    StringBuilder normalized = new StringBuilder(12);
+    for (int i = 0; i < nicNumber.length(); i++) {
+      char c = nicNumber.charAt(i);
+      if (!Character.isWhitespace(c)) {
+        normalized.append(Character.toUpperCase(c));
+      }
+    }
+    String nic = normalized.toString();
+    if (!isNewFormat(nic) && !isOldFormat(nic)) {
+      throw new InvalidNicException("Invalid NIC number: " + nicNumber);
+    }
+    return nic;
+  }
+
+  /**
+   * @return the key shared by every spelling of the NIC
+   * @throws InvalidNicException if the value is in neither format
+   */
+  public static long encode(String nicNumber) {
+    String nic = normalize(nicNumber);
+    if (nic.length() == 12) {
+      return Long.parseLong(nic);
+    }
+    return Long.parseLong("19" + nic.substring(0, 5) + "0" + nic.substring(5, 9));
+  }
+
+  /** @return the key written as a new-format NIC */
+  public static String format(long key) {
+    return String.format("%012d", key);
+  }
+
+  private static boolean isNewFormat(String nic) {
+    return nic.length() == 12 && allDigits(nic, 12);
+  }
+
+  private static boolean isOldFormat(String nic) {
+    char letter = nic.length() == 10 ? nic.charAt(9) : 0;
+    return (letter == 'V' || letter == 'X') && allDigits(nic, 9);
+  }
+
+  private static boolean allDigits(String nic, int length) {
+    for (int i = 0; i < length; i++) {
+      char c = nic.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
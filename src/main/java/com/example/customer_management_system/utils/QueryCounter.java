@@ -0,0 +1,65 @@
+package com.example.customer_management_system.utils;
+
+import java.time.Duration;
+
+/**
+ * Counts the SQL statements run on the current thread and the time the database took for them.
+ * The data source proxy (see {@code QueryCountingConfig}) reports every execution here; a JDBC
+ * batch is one execution, since it is one round trip. Work is measured by opening a
+ * {@link Scope} around it. Scopes nest, and a statement counts in every open scope of its thread.
+ */
+public final class QueryCounter {
+
+  private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+  private QueryCounter() {}
+
+  /** Opens a scope on the current thread; close it on the same thread. */
+  public static Scope start() {
+    Scope scope = new Scope(CURRENT.get());
+    CURRENT.set(scope);
+    return scope;
+  }
+
+  /** @return the innermost open scope of the current thread, or null */
+  public static Scope current() {
+    return CURRENT.get();
+  }
+
+  /** Records one execution in every open scope of the current thread. */
+  public static void record(long elapsedMillis) {
+    for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+      scope.statements++;
+      scope.elapsedMillis += elapsedMillis;
+    }
+  }
+
+  /** Statements counted since the scope was opened. */
+  public static final class Scope implements AutoCloseable {
+
+    private final Scope parent;
+    private int statements;
+    private long elapsedMillis;
+
+    private Scope(Scope parent) {
+      this.parent = parent;
+    }
+
+    public int statements() {
+      return statements;
+    }
+
+    public Duration time() {
+      return Duration.ofMillis(elapsedMillis);
+    }
+
+    @Override
+    public void close() {
+      if (parent == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(parent);
+      }
+    }
+  }
+}
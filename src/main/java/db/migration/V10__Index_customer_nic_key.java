@@ -0,0 +1,57 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Makes the 8-byte {@code nic_key} the unique lookup index in place of the VARCHAR(255) NIC.
+ *
+ * <p>The unique index on {@code nic_number} is looked up rather than dropped by name: V1 calls it
+ * {@code uk_customers_nic_number}, but databases baselined from a schema Hibernate created have
+ * one named {@code UK_<hash>}. Both statements can be run again, since MariaDB does not roll DDL
+ * back when a migration fails halfway.
+ */
+@Slf4j
+public class V10__Index_customer_nic_key extends BaseJavaMigration {
+
+  @Override
+  public void migrate(Context context) throws SQLException {
+    Connection connection = context.getConnection();
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(
+          "CREATE UNIQUE INDEX IF NOT EXISTS uk_customers_nic_key ON customers (nic_key)");
+      for (String index : nicNumberIndexes(statement)) {
+        log.info("Dropping unique index {} on customers.nic_number", index);
+        statement.execute("ALTER TABLE customers DROP INDEX " + index);
+      }
+    }
+  }
+
+  /** @return the unique constraints on {@code nic_number} alone */
+  private List<String> nicNumberIndexes(Statement statement) throws SQLException {
+    List<String> indexes = new ArrayList<>();
+    try (ResultSet rs =
+        statement.executeQuery(
+            "SELECT tc.constraint_name FROM information_schema.table_constraints tc "
+                + "JOIN information_schema.key_column_usage kcu "
+                + "ON kcu.constraint_schema = tc.constraint_schema "
+                + "AND kcu.constraint_name = tc.constraint_name AND kcu.table_name = tc.table_name "
+                + "WHERE tc.table_schema = SCHEMA() AND tc.table_name = 'customers' "
+                + "AND tc.constraint_type = 'UNIQUE' "
+                + "GROUP BY tc.constraint_name "
+                + "HAVING COUNT(*) = 1 AND MAX(kcu.column_name) = 'nic_number'")) {
+      while (rs.next()) {
+        indexes.add(rs.getString(1));
+      }
+    }
+    return indexes;
+  }
+}
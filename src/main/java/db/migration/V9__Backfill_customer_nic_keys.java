@@ -0,0 +1,115 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Locale;
+
+/**
+ * Fills {@code customers.nic_key} from {@code nic_number}, which SQL alone cannot do for the old
+ * NIC format. Rows are walked by id in batches.
+ *
+ * <p>The encoding is a copy of {@code NicCodec} as it stood when this migration was written, so a
+ * later change to the codec cannot change what this migration does.
+ *
+ * <p>Rows that cannot get a key keep it NULL and are logged for a manual fix, so the unique index
+ * added by V10 can still be built:
+ *
+ * <ul>
+ *   <li>malformed NICs
+ *   <li>NICs that turn out to be another spelling of an earlier customer's NIC
+ * </ul>
+ */
+@Slf4j
+public class V9__Backfill_customer_nic_keys extends BaseJavaMigration {
+
+  private static final int BATCH_SIZE = 1000;
+
+  @Override
+  public void migrate(Context context) throws SQLException {
+    Connection connection = context.getConnection();
+    backfill(connection);
+    clearDuplicates(connection);
+  }
+
+  private void backfill(Connection connection) throws SQLException {
+    try (PreparedStatement select =
+            connection.prepareStatement(
+                "SELECT id, nic_number FROM customers WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE);
+        PreparedStatement update =
+            connection.prepareStatement("UPDATE customers SET nic_key = ? WHERE id = ?")) {
+      long lastId = 0;
+      int read;
+      do {
+        read = 0;
+        select.setLong(1, lastId);
+        try (ResultSet rs = select.executeQuery()) {
+          while (rs.next()) {
+            read++;
+            lastId = rs.getLong("id");
+            Long nicKey = nicKey(rs.getString("nic_number"));
+            if (nicKey != null) {
+              update.setLong(1, nicKey);
+            } else {
+              log.warn("Customer {} keeps no NIC key: invalid NIC number", lastId);
+              update.setNull(1, Types.BIGINT);
+            }
+            update.setLong(2, lastId);
+            update.addBatch();
+          }
+        }
+        update.executeBatch();
+      } while (read == BATCH_SIZE);
+    }
+  }
+
+  /** The oldest customer keeps a shared key; the others lose it. */
+  private void clearDuplicates(Connection connection) throws SQLException {
+    try (PreparedStatement duplicates =
+            connection.prepareStatement(
+                "SELECT nic_key, MIN(id) AS first_id FROM customers WHERE nic_key IS NOT NULL "
+                    + "GROUP BY nic_key HAVING COUNT(*) > 1");
+        PreparedStatement clear =
+            connection.prepareStatement(
+                "UPDATE customers SET nic_key = NULL WHERE nic_key = ? AND id <> ?");
+        ResultSet rs = duplicates.executeQuery()) {
+      while (rs.next()) {
+        long nicKey = rs.getLong("nic_key");
+        long firstId = rs.getLong("first_id");
+        log.warn(
+            "NIC {} belongs to several customers; only customer {} keeps the key",
+            String.format("%012d", nicKey),
+            firstId);
+        clear.setLong(1, nicKey);
+        clear.setLong(2, firstId);
+        clear.executeUpdate();
+      }
+    }
+  }
+
+  /**
+   * Old NICs ({@code YYDDDSSSC} + V/X) map to the new 12 digits as {@code 19 + YYDDD + 0 + SSSC};
+   * whitespace is ignored.
+   *
+   * @return the key, or null if the value is in neither format
+   */
+  private static Long nicKey(String nicNumber) {
+    if (nicNumber == null) {
+      return null;
+    }
+    String nic = nicNumber.replaceAll("\\s", "").toUpperCase(Locale.ROOT);
+    if (nic.matches("[0-9]{12}")) {
+      return Long.parseLong(nic);
+    }
+    if (nic.matches("[0-9]{9}[VX]")) {
+      return Long.parseLong("19" + nic.substring(0, 5) + "0" + nic.substring(5, 9));
+    }
+    return null;
+  }
+}
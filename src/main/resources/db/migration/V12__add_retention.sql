@@ -0,0 +1,78 @@
+-- Retention: customers retired by the business and finished bulk jobs are moved to the archive
+-- tables below by RetentionService, a small batch at a time. Archive tables carry no foreign keys
+-- or unique constraints, so rows archived at different times never conflict.
+
+ALTER TABLE customers ADD COLUMN retired_at DATETIME(6);
+
+-- Only retired customers have a value, so the retention scan reads a short range
+CREATE INDEX idx_customers_retired_at ON customers (retired_at);
+
+CREATE TABLE customers_archive (
+    id                 BIGINT       NOT NULL,
+    name               VARCHAR(255) NOT NULL,
+    date_of_birth      DATE         NOT NULL,
+    nic_number         VARCHAR(255) NOT NULL,
+    nic_key            BIGINT,
+    parent_customer_id BIGINT,
+    created_at         DATETIME(6),
+    updated_at         DATETIME(6),
+    retired_at         DATETIME(6),
+    archived_at        DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE mobile_numbers_archive (
+    id            BIGINT      NOT NULL,
+    customer_id   BIGINT      NOT NULL,
+    mobile_number VARCHAR(15) NOT NULL,
+    created_at    DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE addresses_archive (
+    id             BIGINT       NOT NULL,
+    customer_id    BIGINT       NOT NULL,
+    address_line_1 VARCHAR(255) NOT NULL,
+    address_line_2 VARCHAR(255),
+    city_id        BIGINT       NOT NULL,
+    created_at     DATETIME(6),
+    updated_at     DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE bulk_processing_archive (
+    id                 BIGINT       NOT NULL,
+    job_id             VARCHAR(255) NOT NULL,
+    tenant_id          VARCHAR(255),
+    status             VARCHAR(255) NOT NULL,
+    total_records      INT,
+    processed_records  INT,
+    success_records    INT,
+    failed_records     INT,
+    total_sheets       INT,
+    processed_sheets   INT,
+    attempts           INT,
+    upload_bytes       BIGINT,
+    error_message      TEXT,
+    created_at         DATETIME(6),
+    updated_at         DATETIME(6),
+    archived_at        DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE bulk_processing_sheets_archive (
+    id                 BIGINT       NOT NULL,
+    bulk_processing_id BIGINT       NOT NULL,
+    sheet_key          VARCHAR(512) NOT NULL,
+    total_records      INT,
+    processed_records  INT,
+    success_records    INT,
+    failed_records     INT,
+    completed_at       DATETIME(6),
+    created_at         DATETIME(6),
+    updated_at         DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_customers_archive_nic_key ON customers_archive (nic_key);
+CREATE INDEX idx_bulk_processing_archive_job_id ON bulk_processing_archive (job_id);
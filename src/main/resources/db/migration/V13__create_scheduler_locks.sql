@@ -0,0 +1,10 @@
+-- One row per scheduled job that must run on a single node at a time. A node locks its job's row
+-- with SELECT ... FOR UPDATE SKIP LOCKED for the duration of the run; a node that finds the row
+-- locked skips the run, since another node is already doing the work.
+
+CREATE TABLE scheduler_locks (
+    lock_name VARCHAR(64) NOT NULL,
+    PRIMARY KEY (lock_name)
+);
+
+INSERT INTO scheduler_locks (lock_name) VALUES ('customer-stats-reconcile');
@@ -0,0 +1,4 @@
+-- Bulk job claims lock this row first, so the per-tenant running-job count of one claim sees the
+-- jobs taken by every claim before it.
+
+INSERT INTO scheduler_locks (lock_name) VALUES ('bulk-job-claim');
@@ -0,0 +1,85 @@
+-- Baseline schema, matching the tables previously generated by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at this version and only pick up later migrations.
+-- Foreign-key indexes are created before their constraints so the engine reuses them instead
+-- of adding anonymous ones.
+
+CREATE TABLE countries (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255) NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_countries_name UNIQUE (name)
+);
+
+CREATE TABLE cities (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255) NOT NULL,
+    country_id BIGINT       NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE customers (
+    id                 BIGINT       NOT NULL AUTO_INCREMENT,
+    name               VARCHAR(255) NOT NULL,
+    date_of_birth      DATE         NOT NULL,
+    nic_number         VARCHAR(255) NOT NULL,
+    parent_customer_id BIGINT,
+    created_at         DATETIME(6),
+    updated_at         DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_customers_nic_number UNIQUE (nic_number)
+);
+
+CREATE TABLE mobile_numbers (
+    id            BIGINT      NOT NULL AUTO_INCREMENT,
+    customer_id   BIGINT      NOT NULL,
+    mobile_number VARCHAR(15) NOT NULL,
+    created_at    DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE addresses (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    customer_id    BIGINT       NOT NULL,
+    address_line_1 VARCHAR(255) NOT NULL,
+    address_line_2 VARCHAR(255),
+    city_id        BIGINT       NOT NULL,
+    created_at     DATETIME(6),
+    updated_at     DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE bulk_processing (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    job_id            VARCHAR(255) NOT NULL,
+    status            VARCHAR(255) NOT NULL,
+    total_records     INT,
+    processed_records INT,
+    success_records   INT,
+    failed_records    INT,
+    error_message     TEXT,
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_bulk_processing_job_id UNIQUE (job_id)
+);
+
+CREATE INDEX idx_cities_country_id ON cities (country_id);
+CREATE INDEX idx_customers_parent_customer_id ON customers (parent_customer_id);
+CREATE INDEX idx_mobile_numbers_customer_id ON mobile_numbers (customer_id);
+CREATE INDEX idx_addresses_customer_id ON addresses (customer_id);
+CREATE INDEX idx_addresses_city_id ON addresses (city_id);
+
+ALTER TABLE cities
+    ADD CONSTRAINT fk_cities_country FOREIGN KEY (country_id) REFERENCES countries (id);
+ALTER TABLE customers
+    ADD CONSTRAINT fk_customers_parent FOREIGN KEY (parent_customer_id) REFERENCES customers (id);
+ALTER TABLE mobile_numbers
+    ADD CONSTRAINT fk_mobile_numbers_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
+ALTER TABLE addresses
+    ADD CONSTRAINT fk_addresses_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
+ALTER TABLE addresses
+    ADD CONSTRAINT fk_addresses_city FOREIGN KEY (city_id) REFERENCES cities (id);
@@ -0,0 +1,16 @@
+-- Named foreign-key indexes for databases baselined from the ddl-auto=update schema, where
+-- only the anonymous indexes behind Hibernate's constraints exist. No-ops on fresh databases.
+CREATE INDEX IF NOT EXISTS idx_cities_country_id ON cities (country_id);
+CREATE INDEX IF NOT EXISTS idx_customers_parent_customer_id ON customers (parent_customer_id);
+CREATE INDEX IF NOT EXISTS idx_mobile_numbers_customer_id ON mobile_numbers (customer_id);
+CREATE INDEX IF NOT EXISTS idx_addresses_customer_id ON addresses (customer_id);
+CREATE INDEX IF NOT EXISTS idx_addresses_city_id ON addresses (city_id);
+
+-- Sort index for GET /api/customers?sortBy=createdAt. The id suffix keeps the order stable
+-- across pages.
+CREATE INDEX idx_customers_created_at ON customers (created_at, id);
+
+-- Covering index for the listing projection sorted by name: every customers column is part
+-- of the key, so a page ordered by name is read from the index alone.
+CREATE INDEX idx_customers_listing_name
+    ON customers (name, id, date_of_birth, nic_number, created_at, updated_at, parent_customer_id);
@@ -0,0 +1,3 @@
+-- Jobs can span several workbooks and sheets; progress is rolled up per sheet.
+ALTER TABLE bulk_processing ADD COLUMN total_sheets INT DEFAULT 0;
+ALTER TABLE bulk_processing ADD COLUMN processed_sheets INT DEFAULT 0;
@@ -0,0 +1,27 @@
+-- Bulk jobs are leased by one node at a time. A lease that is not renewed expires, and another
+-- node resumes the job from the per-sheet checkpoints in bulk_processing_sheets.
+
+ALTER TABLE bulk_processing ADD COLUMN lease_owner VARCHAR(255);
+ALTER TABLE bulk_processing ADD COLUMN lease_expires_at DATETIME(6);
+ALTER TABLE bulk_processing ADD COLUMN heartbeat_at DATETIME(6);
+ALTER TABLE bulk_processing ADD COLUMN attempts INT DEFAULT 0;
+
+CREATE INDEX idx_bulk_processing_status_lease ON bulk_processing (status, lease_expires_at);
+
+CREATE TABLE bulk_processing_sheets (
+    id                 BIGINT       NOT NULL AUTO_INCREMENT,
+    bulk_processing_id BIGINT       NOT NULL,
+    sheet_key          VARCHAR(512) NOT NULL,
+    total_records      INT,
+    processed_records  INT,
+    success_records    INT,
+    failed_records     INT,
+    completed_at       DATETIME(6),
+    created_at         DATETIME(6),
+    updated_at         DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_bulk_processing_sheets_key UNIQUE (bulk_processing_id, sheet_key)
+);
+
+ALTER TABLE bulk_processing_sheets
+    ADD CONSTRAINT fk_bulk_processing_sheets_job FOREIGN KEY (bulk_processing_id) REFERENCES bulk_processing (id);
@@ -0,0 +1,8 @@
+-- Claim order and per-tenant caps for bulk jobs.
+
+ALTER TABLE bulk_processing ADD COLUMN tenant_id VARCHAR(255) DEFAULT 'default';
+ALTER TABLE bulk_processing ADD COLUMN priority INT DEFAULT 0;
+ALTER TABLE bulk_processing ADD COLUMN upload_bytes BIGINT DEFAULT 0;
+
+-- Counts a tenant's running jobs while a claim is made
+CREATE INDEX idx_bulk_processing_tenant_status ON bulk_processing (tenant_id, status, lease_expires_at);
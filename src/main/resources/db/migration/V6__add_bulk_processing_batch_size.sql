@@ -0,0 +1,2 @@
+-- Chunk size the adaptive controller currently uses for the job.
+ALTER TABLE bulk_processing ADD COLUMN current_batch_size INT;
@@ -0,0 +1,10 @@
+-- Append-only outbox of customer modifications. Rows are written in the same transaction as the
+-- change, and the id is the sequence consumers page by (GET /api/customers/changes?since=).
+
+CREATE TABLE customer_changes (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    customer_id BIGINT      NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    changed_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
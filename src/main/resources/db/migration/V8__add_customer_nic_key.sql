@@ -0,0 +1,3 @@
+-- Numeric NIC key shared by the old (9 digits + V/X) and new (12 digits) spelling of a NIC.
+-- Filled in by V9, indexed by V10.
+ALTER TABLE customers ADD COLUMN nic_key BIGINT;
@@ -0,0 +1,164 @@
+package com.example.customer_management_system.perf;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.ByteArrayBodyPart;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.PopulationBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Session;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Open-model load test of the customer API against a perf-profile instance. Each mix arrives at
+ * its own constant rate, so a slow endpoint shows up as latency and errors rather than as fewer
+ * requests. Gatling writes an HTML report with throughput and latency percentiles per request to
+ * {@code target/gatling}.
+ *
+ * <p>Tuned with system properties: {@code perf.base-url}, {@code perf.seed.customers} (the ids
+ * read requests pick from), {@code perf.duration} in seconds, the per-second rates
+ * {@code perf.rate.list}, {@code perf.rate.get}, {@code perf.rate.write} and
+ * {@code perf.rate.bulk}, {@code perf.bulk.rows} and {@code perf.max-failed-percent}.
+ */
+public class CustomerLoadSimulation extends Simulation {
+
+  private static final String BASE_URL =
+      System.getProperty("perf.base-url", "http://localhost:8080");
+  private static final int CUSTOMERS = Integer.getInteger("perf.seed.customers", 1_000_000);
+  private static final int DURATION = Integer.getInteger("perf.duration", 120);
+  private static final int BULK_ROWS = Integer.getInteger("perf.bulk.rows", 200);
+  // Deep offset pages are not what dashboards ask for; listings stay within the first pages
+  private static final int LIST_PAGES = Math.max(1, Math.min(CUSTOMERS / 20, 500));
+
+  // New NICs start at a base taken from the clock, so repeated runs do not collide
+  private static final AtomicLong NEXT_NIC =
+      new AtomicLong(500_000_000_000L + (System.currentTimeMillis() / 1000 % 100_000) * 1_000_000);
+
+  private final HttpProtocolBuilder httpProtocol =
+      http.baseUrl(BASE_URL).acceptHeader("application/json").shareConnections();
+
+  private final Iterator<Map<String, Object>> pages =
+      Stream.generate(() -> value("page", ThreadLocalRandom.current().nextInt(LIST_PAGES)))
+          .iterator();
+
+  private final Iterator<Map<String, Object>> customerIds =
+      Stream.generate(() -> value("id", 1 + ThreadLocalRandom.current().nextInt(CUSTOMERS)))
+          .iterator();
+
+  private final Iterator<Map<String, Object>> newNics =
+      Stream.generate(() -> value("nic", String.valueOf(NEXT_NIC.getAndIncrement()))).iterator();
+
+  private final ScenarioBuilder listing =
+      scenario("listing")
+          .feed(pages)
+          .exec(
+              http("list customers")
+                  .get("/api/customers?page=#{page}&size=20&sortBy=id")
+                  .check(status().is(200)));
+
+  private final ScenarioBuilder getById =
+      scenario("get by id")
+          .feed(customerIds)
+          .exec(http("get customer").get("/api/customers/#{id}").check(status().is(200)));
+
+  private final ScenarioBuilder createAndUpdate =
+      scenario("create and update")
+          .feed(newNics)
+          .exec(
+              http("create customer")
+                  .post("/api/customers")
+                  .body(StringBody(customerJson("Load Test")))
+                  .asJson()
+                  .check(status().is(200), jsonPath("$.id").saveAs("customerId")))
+          // A shed or failed create leaves nothing to update
+          .exitHereIfFailed()
+          .exec(
+              http("update customer")
+                  .put("/api/customers/#{customerId}")
+                  .body(StringBody(customerJson("Load Test Updated")))
+                  .asJson()
+                  .check(status().is(200)));
+
+  private final ScenarioBuilder bulkUpload =
+      scenario("bulk upload")
+          .exec(
+              http("bulk upload")
+                  .post("/api/customers/bulk-upload")
+                  .bodyPart(
+                      ByteArrayBodyPart("file", CustomerLoadSimulation::workbook)
+                          .fileName("load-test.xlsx")
+                          .contentType(
+                              "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                  .asMultipartForm()
+                  .check(status().is(200), jsonPath("$.status").is("QUEUED")));
+
+  {
+    setUp(
+            mix(listing, "perf.rate.list", 50),
+            mix(getById, "perf.rate.get", 200),
+            mix(createAndUpdate, "perf.rate.write", 20),
+            mix(bulkUpload, "perf.rate.bulk", 0.2))
+        .protocols(httpProtocol)
+        .assertions(
+            global()
+                .failedRequests()
+                .percent()
+                .lt(Double.parseDouble(System.getProperty("perf.max-failed-percent", "5"))));
+  }
+
+  private static PopulationBuilder mix(ScenarioBuilder scenario, String rateProperty, double rate) {
+    double perSecond = Double.parseDouble(System.getProperty(rateProperty, String.valueOf(rate)));
+    return scenario.injectOpen(constantUsersPerSec(perSecond).during(DURATION));
+  }
+
+  private static String customerJson(String name) {
+    return "{\"name\":\""
+        + name
+        + "\",\"dateOfBirth\":\"1990-01-01\",\"nicNumber\":\"#{nic}\","
+        + "\"mobileNumbers\":[\"0771234567\"]}";
+  }
+
+  /** A small workbook of new customers, different for every upload. */
+  private static byte[] workbook(Session session) {
+    try (XSSFWorkbook workbook = new XSSFWorkbook();
+        ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      Sheet sheet = workbook.createSheet("Customers");
+      Row header = sheet.createRow(0);
+      header.createCell(0).setCellValue("Name");
+      header.createCell(1).setCellValue("Date of Birth");
+      header.createCell(2).setCellValue("NIC Number");
+      for (int i = 1; i <= BULK_ROWS; i++) {
+        Row row = sheet.createRow(i);
+        row.createCell(0).setCellValue("Bulk Load Test");
+        row.createCell(1).setCellValue("1985-06-15");
+        row.createCell(2).setCellValue(String.valueOf(NEXT_NIC.getAndIncrement()));
+      }
+      workbook.write(out);
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Map<String, Object> value(String key, Object value) {
+    return Collections.singletonMap(key, value);
+  }
+}
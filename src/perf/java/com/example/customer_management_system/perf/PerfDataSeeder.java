@@ -0,0 +1,172 @@
+package com.example.customer_management_system.perf;
+
+import com.example.customer_management_system.application.CustomerStatsService;
+import com.example.customer_management_system.utils.NicCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fills an empty perf database with synthetic customers before the application reports ready.
+ * Customers come in households of one to four: a head born 1940-1985 and children born 20 to 35
+ * years later, linked through {@code parent_customer_id} and sharing the head's city. Everyone
+ * gets an address and a mobile number. Rows go in through JDBC batches with explicit ids, so
+ * parents are known without reading keys back; the id sequence is moved past them afterwards.
+ * The data is generated from a fixed seed, so every run starts from the same database.
+ */
+@Slf4j
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+public class PerfDataSeeder implements ApplicationRunner {
+
+  private static final String[] FIRST_NAMES = {
+    "Aiden", "Liam", "Nimal", "Kamala", "Sunil", "Priya", "Ravi", "Amara", "Dilan", "Tharushi"
+  };
+  private static final String[] LAST_NAMES = {
+    "Perera", "Fernando", "Silva", "Dias", "James", "Jayasinghe", "Bandara", "Kumara"
+  };
+  private static final String[] COUNTRIES = {"Sri Lanka", "India", "Maldives", "Singapore"};
+  private static final int CITIES_PER_COUNTRY = 10;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final CustomerStatsService customerStatsService;
+
+  @Value("${perf.seed.customers:1000000}")
+  private int customers;
+
+  @Value("${perf.seed.batch-size:5000}")
+  private int batchSize;
+
+  private final Random random = new Random(42);
+  // NIC serials handed out per date of birth, so generated NICs never collide
+  private final Map<LocalDate, Integer> serials = new HashMap<>();
+
+  @Override
+  public void run(ApplicationArguments args) {
+    Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Long.class);
+    if (existing != null && existing > 0) {
+      log.info("Perf database already holds {} customers, not seeding", existing);
+      return;
+    }
+
+    long start = System.nanoTime();
+    List<Long> cityIds = seedCities();
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> customerRows = new ArrayList<>();
+    List<Object[]> addressRows = new ArrayList<>();
+    List<Object[]> mobileRows = new ArrayList<>();
+
+    long id = 1;
+    long nextLog = 100_000;
+    while (id <= customers) {
+      long headId = id;
+      LocalDate headBirth = LocalDate.of(1940, 1, 1).plusDays(random.nextInt(365 * 45));
+      long cityId = cityIds.get(random.nextInt(cityIds.size()));
+      String street =
+          (1 + random.nextInt(500)) + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " Road";
+      int members = Math.min(1 + random.nextInt(4), customers - (int) id + 1);
+
+      for (int member = 0; member < members; member++, id++) {
+        LocalDate birth =
+            member == 0
+                ? headBirth
+                : headBirth.plusYears(20 + random.nextInt(16)).plusDays(random.nextInt(365));
+        String nic = nicNumber(birth);
+        customerRows.add(
+            new Object[] {
+              id, name(), Date.valueOf(birth), nic, NicCodec.encode(nic),
+              member == 0 ? null : headId, now, now
+            });
+        addressRows.add(new Object[] {id, street, null, cityId, now, now});
+        mobileRows.add(new Object[] {id, String.format("07%08d", random.nextInt(100_000_000)), now});
+      }
+
+      if (customerRows.size() >= batchSize || id > customers) {
+        insert(customerRows, addressRows, mobileRows);
+        if (id > nextLog) {
+          log.info("Seeded {} of {} customers", id - 1, customers);
+          nextLog += 100_000;
+        }
+      }
+    }
+
+    // H2 does not move an identity column past explicitly inserted ids
+    jdbcTemplate.execute("ALTER TABLE customers ALTER COLUMN id RESTART WITH " + id);
+    customerStatsService.reconcile();
+    log.info(
+        "Seeded {} customers in {} s", customers, (System.nanoTime() - start) / 1_000_000_000L);
+  }
+
+  private void insert(
+      List<Object[]> customerRows, List<Object[]> addressRows, List<Object[]> mobileRows) {
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.batchUpdate(
+          "INSERT INTO customers "
+              + "(id, name, date_of_birth, nic_number, nic_key, parent_customer_id, created_at, updated_at) "
+              + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+          customerRows);
+      jdbcTemplate.batchUpdate(
+          "INSERT INTO addresses "
+              + "(customer_id, address_line_1, address_line_2, city_id, created_at, updated_at) "
+              + "VALUES (?, ?, ?, ?, ?, ?)",
+          addressRows);
+      jdbcTemplate.batchUpdate(
+          "INSERT INTO mobile_numbers (customer_id, mobile_number, created_at) VALUES (?, ?, ?)",
+          mobileRows);
+    });
+    customerRows.clear();
+    addressRows.clear();
+    mobileRows.clear();
+  }
+
+  /** Adds a few countries with cities unless reference data exists, and returns the city ids. */
+  private List<Long> seedCities() {
+    List<Long> cityIds = jdbcTemplate.queryForList("SELECT id FROM cities", Long.class);
+    if (!cityIds.isEmpty()) {
+      return cityIds;
+    }
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    for (String country : COUNTRIES) {
+      jdbcTemplate.update(
+          "INSERT INTO countries (name, created_at, updated_at) VALUES (?, ?, ?)", country, now, now);
+      Long countryId =
+          jdbcTemplate.queryForObject("SELECT id FROM countries WHERE name = ?", Long.class, country);
+      for (int i = 1; i <= CITIES_PER_COUNTRY; i++) {
+        jdbcTemplate.update(
+            "INSERT INTO cities (name, country_id, created_at, updated_at) VALUES (?, ?, ?, ?)",
+            country + " City " + i, countryId, now, now);
+      }
+    }
+    return jdbcTemplate.queryForList("SELECT id FROM cities", Long.class);
+  }
+
+  private String name() {
+    return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]
+        + " "
+        + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+  }
+
+  /** A new-format NIC for the date of birth: YYYY, day of year, then a five-digit serial. */
+  private String nicNumber(LocalDate birth) {
+    int serial = serials.merge(birth, 1, Integer::sum);
+    return String.format("%04d%03d%05d", birth.getYear(), birth.getDayOfYear(), serial);
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.customer_management_system.domain.entities.Customer;
+import com.example.customer_management_system.domain.repository.CustomerRepository;
+import com.example.customer_management_system.model.CustomerDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.time.LocalDate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class BinaryFormatsTests {
+
+	private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+	private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+	@AfterEach
+	void cleanUp() {
+		customerRepository.deleteAll();
+	}
+
+	@Test
+	void customerIsRenderedAsSmileCborOrJson() throws Exception {
+		Customer saved = customerRepository.save(new Customer("Nila Fernando", LocalDate.of(1988, 11, 5), "198831000456"));
+
+		byte[] smile = mockMvc.perform(get("/api/customers/{id}", saved.getId()).accept(SMILE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+		CustomerDTO fromSmile = smileMapper.readValue(smile, CustomerDTO.class);
+		assertThat(fromSmile.getNicNumber()).isEqualTo("198831000456");
+		assertThat(fromSmile.getDateOfBirth()).isEqualTo(LocalDate.of(1988, 11, 5));
+
+		byte[] cbor = mockMvc.perform(get("/api/customers/{id}", saved.getId()).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+		assertThat(cborMapper.readValue(cbor, CustomerDTO.class).getName()).isEqualTo("Nila Fernando");
+
+		mockMvc.perform(get("/api/customers/{id}", saved.getId()).accept(MediaType.ALL))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void pagesFollowTheAcceptHeader() throws Exception {
+		customerRepository.save(new Customer("Nila Fernando", LocalDate.of(1988, 11, 5), "198831000456"));
+
+		byte[] smile = mockMvc.perform(get("/api/customers").param("size", "5").accept(SMILE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+		JsonNode page = new ObjectMapper(new SmileFactory()).readTree(smile);
+		assertThat(page.get("content").get(0).get("nicNumber").asText()).isEqualTo("198831000456");
+
+		mockMvc.perform(get("/api/customers").param("size", "5"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+}
@@ -0,0 +1,207 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.customer_management_system.application.BulkCustomerService;
+import com.example.customer_management_system.application.BulkUploadStorage;
+import com.example.customer_management_system.application.CustomerService;
+import com.example.customer_management_system.application.CustomerStatsService;
+import com.example.customer_management_system.domain.repository.CustomerRepository;
+import com.example.customer_management_system.model.BulkUploadResponse;
+import com.example.customer_management_system.model.CustomerDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collections;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Runs real imports end to end: the upload is queued, claimed by a worker, staged, written and linked. */
+@SpringBootTest(properties = "bulk.processing.poll-interval=100")
+@ActiveProfiles("test")
+class BulkImportTests {
+
+	@Autowired
+	private BulkCustomerService bulkCustomerService;
+
+	@Autowired
+	private BulkUploadStorage bulkUploadStorage;
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerStatsService customerStatsService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("INSERT INTO countries (name) VALUES ('Bulk Land')");
+		long country = jdbcTemplate.queryForObject("SELECT id FROM countries WHERE name = 'Bulk Land'", Long.class);
+		jdbcTemplate.update("INSERT INTO cities (name, country_id) VALUES ('Bulk City', ?)", country);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("UPDATE customers SET parent_customer_id = NULL");
+		customerRepository.deleteAll();
+		jdbcTemplate.update("DELETE FROM bulk_processing_sheets WHERE bulk_processing_id IN "
+				+ "(SELECT id FROM bulk_processing WHERE job_id = 'bulk-lost-lease')");
+		jdbcTemplate.update("DELETE FROM bulk_processing WHERE job_id = 'bulk-lost-lease'");
+		jdbcTemplate.update("DELETE FROM cities WHERE name = 'Bulk City'");
+		jdbcTemplate.update("DELETE FROM countries WHERE name = 'Bulk Land'");
+		customerStatsService.reconcile();
+	}
+
+	@Test
+	void importsWorkbookAndLinksParentsAcrossSheets() throws Exception {
+		Workbook workbook = new XSSFWorkbook();
+		Sheet children = workbook.createSheet("Children");
+		row(children, 0, "NIC Number", "Full Name", "Date of Birth", "Mobile 1", "Mobile 2", "Address Line 1", "City",
+				"Parent NIC");
+		row(children, 1, "201000100001", "Bulk Child", "2010-01-01", "0771234567", "0711111111;0722222222",
+				"1 Main St", "bulk city ", "198000100001");
+		row(children, 2, "201000100002", "Bulk Unknown City", "2010-01-01", null, null, "2 Main St", "Nowhere", null);
+		// The parent only appears in a later sheet
+		Sheet parents = workbook.createSheet("Parents");
+		row(parents, 0, "Name", "DOB", "NIC");
+		row(parents, 1, "Bulk Parent", "1980-01-01", "198000100001");
+
+		BulkUploadResponse queued = bulkCustomerService.handleBulkUpload(
+				new MockMultipartFile("file", "customers.xlsx", null, bytes(workbook)));
+		assertThat(queued.getStatus()).isEqualTo("QUEUED");
+
+		BulkUploadResponse done = awaitFinished(queued.getJobId());
+		assertThat(done.getStatus()).isEqualTo("COMPLETED");
+		assertThat(done.getTotalSheets()).isEqualTo(2);
+		assertThat(done.getProcessedSheets()).isEqualTo(2);
+		// The row with an unknown city is rejected while staging, before it is counted
+		assertThat(done.getTotalRecords()).isEqualTo(2);
+		assertThat(done.getSuccessRecords()).isEqualTo(2);
+
+		Long child = customerRepository.findByNicNumber("201000100001").get().getId();
+		Long parent = customerRepository.findByNicNumber("198000100001").get().getId();
+		assertThat(customerRepository.findByNicNumber("201000100002")).isEmpty();
+
+		CustomerDTO imported = customerService.getCustomerById(child);
+		assertThat(imported.getMobileNumbers()).containsExactlyInAnyOrder("0771234567", "0711111111", "0722222222");
+		assertThat(imported.getAddresses()).hasSize(1);
+		assertThat(parentOf(child)).isEqualTo(parent);
+		assertThat(customerService.getCustomerById(parent).getFamilyMembers()).hasSize(1);
+	}
+
+	@Test
+	void resumesJobAfterItsLeaseIsLost() throws Exception {
+		Workbook workbook = new XSSFWorkbook();
+		Sheet sheet = workbook.createSheet();
+		row(sheet, 0, "Name", "Date of Birth", "NIC Number");
+		for (int i = 1; i <= 300; i++) {
+			row(sheet, i, "Bulk Resumed " + i, "1990-01-01", String.valueOf(199000200000L + i));
+		}
+		bulkUploadStorage.store("bulk-lost-lease", Collections.singletonList(
+				new MockMultipartFile("file", "customers.xlsx", null, bytes(workbook))));
+
+		// A node wrote the first 100 rows, then died holding the lease
+		jdbcTemplate.update("INSERT INTO bulk_processing (job_id, status, lease_owner, lease_expires_at, attempts, "
+				+ "total_records, processed_records, success_records, failed_records, created_at) "
+				+ "VALUES ('bulk-lost-lease', 'PROCESSING', 'dead-node', TIMESTAMPADD(MINUTE, -5, CURRENT_TIMESTAMP), "
+				+ "1, 0, 0, 0, 0, CURRENT_TIMESTAMP)");
+		long jobId = jdbcTemplate.queryForObject(
+				"SELECT id FROM bulk_processing WHERE job_id = 'bulk-lost-lease'", Long.class);
+		jdbcTemplate.update("INSERT INTO bulk_processing_sheets (bulk_processing_id, sheet_key, total_records, "
+				+ "processed_records, success_records, failed_records) VALUES (?, '000-customers.xlsx#0', 300, 100, 100, 0)",
+				jobId);
+
+		BulkUploadResponse done = awaitFinished("bulk-lost-lease");
+
+		assertThat(done.getStatus()).as(done.getMessage()).isEqualTo("COMPLETED");
+		assertThat(done.getProcessedRecords()).isEqualTo(300);
+		assertThat(done.getSuccessRecords()).isEqualTo(300);
+		// Only the rows after the checkpoint were written again
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM customers WHERE name LIKE 'Bulk Resumed %'", Integer.class)).isEqualTo(200);
+		assertThat(customerRepository.findByNicNumber("199000200001")).isEmpty();
+		assertThat(customerRepository.findByNicNumber("199000200101")).isPresent();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT attempts FROM bulk_processing WHERE id = ?", Integer.class, jobId)).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT lease_owner FROM bulk_processing WHERE id = ?", String.class, jobId)).isNull();
+	}
+
+	@Test
+	void chunksStayWithinTheirStatementBudget() throws Exception {
+		customerService.createCustomer(new CustomerDTO("Bulk Existing", LocalDate.of(1990, 1, 1), "199000300001"));
+		Workbook workbook = new XSSFWorkbook();
+		Sheet sheet = workbook.createSheet();
+		row(sheet, 0, "Name", "Date of Birth", "NIC Number", "Mobile", "Address Line 1", "City");
+		for (int i = 1; i <= 1200; i++) {
+			row(sheet, i, "Bulk Budget " + i, "1990-01-01", String.valueOf(199000300000L + i), "0771234567",
+					i + " Main St", "Bulk City");
+		}
+
+		BulkUploadResponse done = awaitFinished(bulkCustomerService.handleBulkUpload(
+				new MockMultipartFile("file", "customers.xlsx", null, bytes(workbook))).getJobId());
+
+		assertThat(done.getStatus()).as(done.getMessage()).isEqualTo("COMPLETED");
+		assertThat(done.getSuccessRecords()).isEqualTo(1199);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM addresses a JOIN customers c ON c.id = a.customer_id "
+						+ "WHERE c.name LIKE 'Bulk Budget %'", Integer.class)).isEqualTo(1199);
+		// Statements grow with the JDBC batches rather than the rows, about a dozen per thousand-row
+		// chunk against query.budget.bulk-chunk.statements=50
+		DistributionSummary chunks = meterRegistry.get("db.statements").tag("scope", "bulk.chunk").summary();
+		assertThat(chunks.max()).isLessThanOrEqualTo(50);
+		assertThat(meterRegistry.find("db.budget.exceeded").tag("scope", "bulk.chunk").counter()).isNull();
+	}
+
+	private BulkUploadResponse awaitFinished(String jobId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 60_000;
+		BulkUploadResponse status = bulkCustomerService.getBulkUploadStatus(jobId);
+		while (("QUEUED".equals(status.getStatus()) || "PROCESSING".equals(status.getStatus()))
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+			status = bulkCustomerService.getBulkUploadStatus(jobId);
+		}
+		return status;
+	}
+
+	private Long parentOf(Long id) {
+		return jdbcTemplate.queryForObject("SELECT parent_customer_id FROM customers WHERE id = ?", Long.class, id);
+	}
+
+	private static void row(Sheet sheet, int index, String... values) {
+		Row row = sheet.createRow(index);
+		for (int column = 0; column < values.length; column++) {
+			if (values[column] != null) {
+				row.createCell(column).setCellValue(values[column]);
+			}
+		}
+	}
+
+	private static byte[] bytes(Workbook workbook) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		workbook.write(out);
+		workbook.close();
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,172 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.customer_management_system.domain.entities.BulkProcessing;
+import com.example.customer_management_system.domain.repository.BulkProcessingRepository;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkJobClaimTests {
+
+	/** Above the workers' own tenant cap, so background workers leave these jobs alone. */
+	private static final int TENANT_CAP = 3;
+
+	@Autowired
+	private BulkProcessingRepository bulkProcessingRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final ExecutorService workers = Executors.newFixedThreadPool(2);
+
+	@BeforeEach
+	void setUp() {
+		// The tenant already runs a job, which keeps it at the cap of the workers in the background
+		job("claim-running", "PROCESSING", "TIMESTAMPADD(MINUTE, 5, CURRENT_TIMESTAMP)");
+		job("claim-first", "QUEUED", "NULL");
+		job("claim-second", "QUEUED", "NULL");
+	}
+
+	@AfterEach
+	void cleanUp() {
+		workers.shutdownNow();
+		jdbcTemplate.update("DELETE FROM bulk_processing WHERE job_id LIKE 'claim-%'");
+	}
+
+	@Test
+	void concurrentClaimsSkipEachOthersJob() throws Exception {
+		CountDownLatch firstLocked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+			String jobId = claim();
+			firstLocked.countDown();
+			await(release);
+			return jobId;
+		}), workers);
+		assertThat(firstLocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+		// The first claim still holds its row lock; the second must not wait for it or take the same job
+		CompletableFuture<String> second =
+				CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> claim()), workers);
+		String secondJob = second.get(10, TimeUnit.SECONDS);
+		release.countDown();
+
+		assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("claim-first");
+		// MariaDB skips the locked row and returns the next one; H2 applies the LIMIT before skipping and
+		// returns none. Either way the job is never claimed twice.
+		assertThat(secondJob).isNotEqualTo("claim-first");
+	}
+
+	@Test
+	void claimWaitsWhileTenantIsAtItsCap() {
+		jdbcTemplate.update("UPDATE bulk_processing SET status = 'PROCESSING', "
+				+ "lease_expires_at = TIMESTAMPADD(MINUTE, 5, CURRENT_TIMESTAMP) WHERE job_id = 'claim-first'");
+		jdbcTemplate.update("UPDATE bulk_processing SET status = 'PROCESSING', "
+				+ "lease_expires_at = TIMESTAMPADD(MINUTE, 5, CURRENT_TIMESTAMP) WHERE job_id = 'claim-second'");
+		job("claim-third", "QUEUED", "NULL");
+
+		assertThat(claimInTransaction()).isNull();
+
+		// An expired lease frees the slot, and its job is claimable again
+		jdbcTemplate.update("UPDATE bulk_processing SET lease_expires_at = TIMESTAMPADD(MINUTE, -5, CURRENT_TIMESTAMP) "
+				+ "WHERE job_id = 'claim-second'");
+		assertThat(claimInTransaction()).isEqualTo("claim-second");
+	}
+
+	@Test
+	void takenOverClaimNoLongerHoldsTheLease() {
+		jdbcTemplate.update("UPDATE bulk_processing SET status = 'PROCESSING', lease_owner = 'old-node', attempts = 1, "
+				+ "lease_expires_at = TIMESTAMPADD(MINUTE, -5, CURRENT_TIMESTAMP) WHERE job_id = 'claim-first'");
+		long id = jdbcTemplate.queryForObject("SELECT id FROM bulk_processing WHERE job_id = 'claim-first'", Long.class);
+		assertThat(holdLease(id, "old-node", 1))
+				.isEqualTo(1);
+
+		// Another node claims the expired job, and the lease is renewed by the database clock
+		jdbcTemplate.update("UPDATE bulk_processing SET lease_owner = 'new-node', attempts = 2 WHERE id = ?", id);
+		assertThat(bulkProcessingRepository.renewLease("claim-first", "new-node", 2, 60_000_000L)).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bulk_processing WHERE id = ? "
+				+ "AND lease_expires_at > CURRENT_TIMESTAMP", Integer.class, id)).isEqualTo(1);
+
+		assertThat(holdLease(id, "old-node", 1))
+				.isZero();
+		assertThat(bulkProcessingRepository.renewLease("claim-first", "old-node", 1, 60_000_000L)).isZero();
+	}
+
+	@Test
+	void reClaimBySameNodeFencesOutItsEarlierRun() {
+		jdbcTemplate.update("UPDATE bulk_processing SET status = 'PROCESSING', lease_owner = 'same-node', attempts = 1, "
+				+ "lease_expires_at = TIMESTAMPADD(MINUTE, -5, CURRENT_TIMESTAMP) WHERE job_id = 'claim-first'");
+		long id = jdbcTemplate.queryForObject("SELECT id FROM bulk_processing WHERE job_id = 'claim-first'", Long.class);
+
+		// The node's own lease expired and it claims the job again
+		jdbcTemplate.update("UPDATE bulk_processing SET attempts = 2 WHERE id = ?", id);
+		assertThat(bulkProcessingRepository.renewLease("claim-first", "same-node", 2, 60_000_000L)).isEqualTo(1);
+
+		// The earlier run can neither extend, write progress for, nor finish the new run's claim
+		assertThat(bulkProcessingRepository.renewLease("claim-first", "same-node", 1, 60_000_000L)).isZero();
+		assertThat(holdLease(id, "same-node", 1)).isZero();
+		assertThat(updateProgress("same-node", 1)).isZero();
+		assertThat(bulkProcessingRepository.release("claim-first", "same-node", 1, BulkProcessing.JobStatus.FAILED,
+				"Lease on job claim-first was lost", LocalDateTime.now())).isZero();
+		assertThat(jdbcTemplate.queryForObject("SELECT status FROM bulk_processing WHERE id = ?", String.class, id))
+				.isEqualTo("PROCESSING");
+
+		assertThat(updateProgress("same-node", 2)).isEqualTo(1);
+		assertThat(bulkProcessingRepository.release("claim-first", "same-node", 2, BulkProcessing.JobStatus.COMPLETED,
+				null, LocalDateTime.now())).isEqualTo(1);
+	}
+
+	private int updateProgress(String owner, int attempt) {
+		return bulkProcessingRepository.updateProgress("claim-first", owner, attempt, 1, 0, 10, 5, 5, 0, 100,
+				LocalDateTime.now());
+	}
+
+	private int holdLease(long id, String owner, int attempt) {
+		return transactionTemplate.execute(status -> bulkProcessingRepository.holdLease(id, owner, attempt));
+	}
+
+	private String claimInTransaction() {
+		return transactionTemplate.execute(status -> claim());
+	}
+
+	/** @return the claimable job with the highest priority, if it belongs to this test */
+	private String claim() {
+		return bulkProcessingRepository.lockNextClaimable(TENANT_CAP)
+				.map(BulkProcessing::getJobId)
+				.filter(jobId -> jobId.startsWith("claim-"))
+				.orElse(null);
+	}
+
+	private void job(String jobId, String status, String leaseExpiresAt) {
+		// A high priority puts these jobs ahead of anything other tests left queued
+		jdbcTemplate.update("INSERT INTO bulk_processing (job_id, status, tenant_id, priority, upload_bytes, "
+				+ "lease_expires_at) VALUES (?, ?, 'claim-tenant', 1000, 100, " + leaseExpiresAt + ")", jobId, status);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
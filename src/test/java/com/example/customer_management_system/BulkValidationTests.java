@@ -0,0 +1,90 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.customer_management_system.domain.entities.Customer;
+import com.example.customer_management_system.domain.repository.BulkProcessingRepository;
+import com.example.customer_management_system.domain.repository.CustomerRepository;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class BulkValidationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private BulkProcessingRepository bulkProcessingRepository;
+
+	@AfterEach
+	void cleanUp() {
+		customerRepository.deleteAll();
+	}
+
+	@Test
+	void dryRunReportsRowVerdictsWithoutImporting() throws Exception {
+		customerRepository.save(new Customer("Sunil Silva", LocalDate.of(1992, 2, 3), "199203400555"));
+		long customers = customerRepository.count();
+		long jobs = bulkProcessingRepository.count();
+
+		MockMultipartFile file = new MockMultipartFile("file", "customers.xlsx",
+				"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", workbook(
+						new String[] {"Name", "Date of Birth", "NIC Number"},
+						new String[] {"Amal Perera", "1990-01-01", "199000100001"},
+						new String[] {"", "1990-01-01", "199000100002"},
+						new String[] {"Chamari Dias", "not a date", "199000100003"},
+						// Old format of the first row's NIC
+						new String[] {"Dilan Perera", "1990-01-01", "900010001V"},
+						new String[] {"Sunil Silva", "1992-02-03", "199203400555"}));
+
+		mockMvc.perform(multipart("/api/customers/bulk-upload").file(file).param("mode", "validate"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("INVALID"))
+				.andExpect(jsonPath("$.totalRows").value(5))
+				.andExpect(jsonPath("$.validRows").value(1))
+				.andExpect(jsonPath("$.invalidRows").value(4))
+				.andExpect(jsonPath("$.invalidRowsByVerdict.MISSING_FIELDS").value(1))
+				.andExpect(jsonPath("$.invalidRowsByVerdict.INVALID_VALUE").value(1))
+				.andExpect(jsonPath("$.invalidRowsByVerdict.DUPLICATE_IN_UPLOAD").value(1))
+				.andExpect(jsonPath("$.invalidRowsByVerdict.ALREADY_EXISTS").value(1))
+				.andExpect(jsonPath("$.errors[0].sheet").value("customers.xlsx#Customers"))
+				.andExpect(jsonPath("$.errors[0].row").value(3));
+
+		assertThat(customerRepository.count()).isEqualTo(customers);
+		assertThat(bulkProcessingRepository.count()).isEqualTo(jobs);
+	}
+
+	private static byte[] workbook(String[]... rows) throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+			Sheet sheet = workbook.createSheet("Customers");
+			for (int i = 0; i < rows.length; i++) {
+				Row row = sheet.createRow(i);
+				for (int j = 0; j < rows[i].length; j++) {
+					row.createCell(j).setCellValue(rows[i][j]);
+				}
+			}
+			workbook.write(out);
+			return out.toByteArray();
+		}
+	}
+}
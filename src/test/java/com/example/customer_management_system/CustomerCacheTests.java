@@ -0,0 +1,69 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.customer_management_system.domain.entities.Customer;
+import com.example.customer_management_system.domain.repository.CustomerRepository;
+import java.time.LocalDate;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerCacheTests {
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@AfterEach
+	void cleanUp() {
+		customerRepository.deleteAll();
+	}
+
+	@Test
+	void nicLookupsOfCachedCustomersSkipSql() {
+		Customer saved = customerRepository.save(new Customer("Aiden James", LocalDate.of(1990, 4, 12), "199012345015"));
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		Long firstId = transactionTemplate.execute(status ->
+				customerRepository.findByNicNumber("199012345015").map(Customer::getId).orElse(null));
+		long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+		Long secondId = transactionTemplate.execute(status ->
+				customerRepository.findByNicNumber("199012345015").map(Customer::getId).orElse(null));
+
+		assertThat(firstId).isEqualTo(saved.getId());
+		assertThat(secondId).isEqualTo(saved.getId());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstLookup);
+		assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+		assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+	}
+
+	@Test
+	void oldAndNewNicFormatsFindTheSameCustomer() {
+		Customer saved = customerRepository.save(new Customer("Ravi Kumar", LocalDate.of(1985, 12, 6), "853400937v"));
+
+		assertThat(saved.getNicNumber()).isEqualTo("853400937V");
+		assertThat(customerRepository.findByNicNumber("198534000937")).map(Customer::getId).hasValue(saved.getId());
+		assertThat(customerRepository.existsByNicNumber(" 853400937X")).isTrue();
+	}
+
+	@Test
+	void unknownNicIsNotFound() {
+		assertThat(customerRepository.existsByNicNumber("000000000000")).isFalse();
+		assertThat(customerRepository.findByNicNumber("000000000000")).isEmpty();
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.example.customer_management_system.application.CustomerService;
+import com.example.customer_management_system.domain.repository.CustomerRepository;
+import com.example.customer_management_system.model.CustomerChangeDTO;
+import com.example.customer_management_system.model.CustomerChangeDTO.ChangeType;
+import com.example.customer_management_system.model.CustomerDTO;
+import com.example.customer_management_system.model.FamilyMemberDTO;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "customer.changes.settle-time=0s")
+@ActiveProfiles("test")
+class CustomerChangeFeedTests {
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM customer_changes");
+		jdbcTemplate.update("UPDATE customers SET parent_customer_id = NULL");
+		customerRepository.deleteAll();
+	}
+
+	@Test
+	void createsAndUpdatesAreFedInOrderFromTheLastSequence() {
+		long head = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM customer_changes", Long.class);
+		CustomerDTO created = customerService.createCustomer(
+				new CustomerDTO("Maya Perera", LocalDate.of(1991, 2, 3), "199103400123"));
+		customerService.updateCustomer(created.getId(),
+				new CustomerDTO("Maya Silva", LocalDate.of(1991, 2, 3), "199103400123"));
+
+		List<CustomerChangeDTO> changes = changesSince(head, 10);
+		assertThat(changes)
+				.extracting(CustomerChangeDTO::getCustomerId, CustomerChangeDTO::getChangeType)
+				.containsExactly(
+						tuple(created.getId(), ChangeType.CREATED),
+						tuple(created.getId(), ChangeType.UPDATED));
+
+		assertThat(changesSince(head, 1)).hasSize(1);
+		assertThat(changesSince(changes.get(0).getSequence(), 10))
+				.extracting(CustomerChangeDTO::getSequence)
+				.containsExactly(changes.get(1).getSequence());
+		assertThat(changesSince(changes.get(1).getSequence(), 10)).isEmpty();
+	}
+
+	@Test
+	void familyMembersCreatedWithACustomerAreFed() {
+		long head = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM customer_changes", Long.class);
+		CustomerDTO parent = new CustomerDTO("Ruwan Fernando", LocalDate.of(1970, 5, 6), "197005600123");
+		parent.setFamilyMembers(Collections.singletonList(
+				new FamilyMemberDTO("Dilan Fernando", "200005600123", LocalDate.of(2000, 5, 6))));
+		CustomerDTO created = customerService.createCustomer(parent);
+
+		CustomerDTO update = new CustomerDTO("Ruwan Fernando", LocalDate.of(1970, 5, 6), "197005600123");
+		update.setFamilyMembers(Collections.singletonList(
+				new FamilyMemberDTO("Sachi Fernando", "200205600123", LocalDate.of(2002, 5, 6))));
+		customerService.updateCustomer(created.getId(), update);
+
+		Long firstChild = customerRepository.findByNicNumber("200005600123").get().getId();
+		Long secondChild = customerRepository.findByNicNumber("200205600123").get().getId();
+		assertThat(changesSince(head, 10))
+				.extracting(CustomerChangeDTO::getCustomerId, CustomerChangeDTO::getChangeType)
+				.containsExactly(
+						tuple(created.getId(), ChangeType.CREATED),
+						tuple(firstChild, ChangeType.CREATED),
+						tuple(created.getId(), ChangeType.UPDATED),
+						tuple(secondChild, ChangeType.CREATED));
+	}
+
+	@Test
+	void feedStopsAtTheFirstChangeNotSettledByTheDatabaseClock() {
+		long head = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM customer_changes", Long.class);
+		customerService.createCustomer(new CustomerDTO("Nimal Perera", LocalDate.of(1991, 2, 3), "199103400124"));
+		customerService.createCustomer(new CustomerDTO("Kamal Perera", LocalDate.of(1991, 2, 3), "199103400125"));
+		List<CustomerChangeDTO> changes = changesSince(head, 10);
+		assertThat(changes).hasSize(2);
+
+		// Still settling by the database clock: the later, settled change is held back with it
+		jdbcTemplate.update("UPDATE customer_changes SET changed_at = TIMESTAMPADD(MINUTE, 1, CURRENT_TIMESTAMP(6)) "
+				+ "WHERE id = ?", changes.get(0).getSequence());
+
+		assertThat(changesSince(head, 10)).isEmpty();
+	}
+
+	private List<CustomerChangeDTO> changesSince(long since, int limit) {
+		List<CustomerChangeDTO> changes = new ArrayList<>();
+		customerService.streamChanges(since, limit, changes::add);
+		return changes;
+	}
+}
@@ -0,0 +1,170 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.customer_management_system.application.CustomerService;
+import com.example.customer_management_system.application.CustomerStatsService;
+import com.example.customer_management_system.domain.repository.CustomerRepository;
+import com.example.customer_management_system.domain.repository.SchedulerLockRepository;
+import com.example.customer_management_system.model.AddressDTO;
+import com.example.customer_management_system.model.CustomerDTO;
+import com.example.customer_management_system.model.CustomerStatsDTO;
+import com.example.customer_management_system.model.CustomerStatsDTO.CityCount;
+import com.example.customer_management_system.model.CustomerStatsDTO.CountryCount;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerStatsTests {
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerStatsService customerStatsService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SchedulerLockRepository schedulerLockRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private long kandy;
+	private long galle;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("INSERT INTO countries (name) VALUES ('Stats Land')");
+		long country = jdbcTemplate.queryForObject(
+				"SELECT id FROM countries WHERE name = 'Stats Land'", Long.class);
+		jdbcTemplate.update("INSERT INTO cities (name, country_id) VALUES ('Stats Kandy', ?)", country);
+		jdbcTemplate.update("INSERT INTO cities (name, country_id) VALUES ('Stats Galle', ?)", country);
+		kandy = jdbcTemplate.queryForObject("SELECT id FROM cities WHERE name = 'Stats Kandy'", Long.class);
+		galle = jdbcTemplate.queryForObject("SELECT id FROM cities WHERE name = 'Stats Galle'", Long.class);
+		// Other tests delete customers behind the counters' back
+		customerStatsService.reconcile();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		customerRepository.deleteAll();
+		jdbcTemplate.update("DELETE FROM cities WHERE name LIKE 'Stats %'");
+		jdbcTemplate.update("DELETE FROM countries WHERE name = 'Stats Land'");
+		customerStatsService.reconcile();
+	}
+
+	@Test
+	void countersFollowCreatesAndUpdates() {
+		CustomerStatsDTO before = customerStatsService.getStats();
+		int year = LocalDate.now().getYear();
+		CustomerDTO customer = new CustomerDTO("Nimal Perera", LocalDate.of(year - 30, 1, 1), "199012300456");
+		customer.setAddresses(Collections.singletonList(new AddressDTO(null, "1 Lake Rd", null, kandy, null, null)));
+		CustomerDTO created = customerService.createCustomer(customer);
+
+		CustomerStatsDTO afterCreate = customerStatsService.getStats();
+		assertThat(afterCreate.getTotalCustomers()).isEqualTo(before.getTotalCustomers() + 1);
+		assertThat(afterCreate.getAgeBands().get("25-34")).isEqualTo(before.getAgeBands().get("25-34") + 1);
+		assertThat(customers(afterCreate, kandy)).isEqualTo(1);
+		assertThat(country(afterCreate)).isEqualTo(1);
+
+		customer.setDateOfBirth(LocalDate.of(year - 70, 1, 1));
+		customer.setAddresses(Collections.singletonList(new AddressDTO(null, "2 Fort Rd", null, galle, null, null)));
+		customerService.updateCustomer(created.getId(), customer);
+
+		CustomerStatsDTO afterUpdate = customerStatsService.getStats();
+		assertThat(afterUpdate.getTotalCustomers()).isEqualTo(afterCreate.getTotalCustomers());
+		assertThat(afterUpdate.getAgeBands().get("25-34")).isEqualTo(before.getAgeBands().get("25-34"));
+		assertThat(afterUpdate.getAgeBands().get("65+")).isEqualTo(before.getAgeBands().get("65+") + 1);
+		assertThat(customers(afterUpdate, kandy)).isZero();
+		assertThat(customers(afterUpdate, galle)).isEqualTo(1);
+		assertThat(country(afterUpdate)).isEqualTo(1);
+	}
+
+	@Test
+	void reconciliationCorrectsDrift() {
+		CustomerStatsDTO before = customerStatsService.getStats();
+		jdbcTemplate.update("UPDATE customer_stats SET stat_value = stat_value + 5 WHERE stat_group = 'total'");
+		jdbcTemplate.update(
+				"INSERT INTO customer_stats (stat_group, stat_key, slot, stat_value) VALUES ('city', ?, 3, 2)",
+				String.valueOf(galle));
+
+		customerStatsService.reconcile();
+
+		CustomerStatsDTO after = customerStatsService.getStats();
+		assertThat(after.getTotalCustomers()).isEqualTo(before.getTotalCustomers());
+		assertThat(customers(after, galle)).isZero();
+	}
+
+	@Test
+	void reconciliationIsSkippedWhileAnotherNodeHoldsTheLock() throws Exception {
+		CustomerStatsDTO before = customerStatsService.getStats();
+		jdbcTemplate.update("UPDATE customer_stats SET stat_value = stat_value + 5 WHERE stat_group = 'total'");
+
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService otherNode = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> reconciling = otherNode.submit(() -> transactionTemplate.execute(status -> {
+				assertThat(schedulerLockRepository.tryLock(SchedulerLockRepository.STATS_RECONCILE)).isTrue();
+				locked.countDown();
+				await(release);
+				return null;
+			}));
+			assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+			// The other node holds the lock, so this run leaves the drift alone
+			customerStatsService.reconcile();
+			assertThat(customerStatsService.getStats().getTotalCustomers()).isGreaterThan(before.getTotalCustomers());
+
+			release.countDown();
+			reconciling.get(10, TimeUnit.SECONDS);
+		} finally {
+			otherNode.shutdownNow();
+		}
+
+		customerStatsService.reconcile();
+		assertThat(customerStatsService.getStats().getTotalCustomers()).isEqualTo(before.getTotalCustomers());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static long customers(CustomerStatsDTO stats, long cityId) {
+		return stats.getCities().stream()
+				.filter(city -> city.getCityId() == cityId)
+				.mapToLong(CityCount::getCustomers)
+				.sum();
+	}
+
+	private static long country(CustomerStatsDTO stats) {
+		return stats.getCountries().stream()
+				.filter(country -> country.getCountry().equals("Stats Land"))
+				.mapToLong(CountryCount::getCustomers)
+				.sum();
+	}
+}
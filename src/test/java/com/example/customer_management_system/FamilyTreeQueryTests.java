@@ -0,0 +1,113 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.customer_management_system.application.CustomerService;
+import com.example.customer_management_system.utils.CustomerNotFoundException;
+import com.example.customer_management_system.domain.repository.CustomerRepository;
+import com.example.customer_management_system.domain.repository.FamilyTreeRow;
+import com.example.customer_management_system.model.CustomerDTO;
+import com.example.customer_management_system.model.FamilyMemberDTO;
+import com.example.customer_management_system.model.FamilyTreeNodeDTO;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FamilyTreeQueryTests {
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long grandparent;
+	private Long parent;
+	private Long sibling;
+	private Long child;
+
+	/** grandparent -> (parent -> child, sibling) */
+	@BeforeEach
+	void setUp() {
+		CustomerDTO root = new CustomerDTO("Tree Grandparent", LocalDate.of(1940, 1, 1), "194000100001");
+		root.setFamilyMembers(Arrays.asList(
+				new FamilyMemberDTO("Tree Parent", "196000100001", LocalDate.of(1960, 1, 1)),
+				new FamilyMemberDTO("Tree Sibling", "196200100001", LocalDate.of(1962, 1, 1))));
+		grandparent = customerService.createCustomer(root).getId();
+		parent = idOf("196000100001");
+		sibling = idOf("196200100001");
+
+		CustomerDTO member = new CustomerDTO("Tree Child", LocalDate.of(1990, 1, 1), "199000100001");
+		member.setFamilyMembers(Collections.emptyList());
+		child = customerService.createCustomer(member).getId();
+		jdbcTemplate.update("UPDATE customers SET parent_customer_id = ? WHERE id = ?", parent, child);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("UPDATE customers SET parent_customer_id = NULL WHERE nic_number IN "
+				+ "('194000100001', '196000100001', '196200100001', '199000100001')");
+		customerRepository.deleteAllById(Arrays.asList(child, sibling, parent, grandparent));
+	}
+
+	@Test
+	void loadsWholeHouseholdFromAnyMember() {
+		for (Long member : Arrays.asList(grandparent, parent, sibling, child)) {
+			List<FamilyTreeRow> rows = customerRepository.findHousehold(member, 10);
+
+			assertThat(rows).extracting(FamilyTreeRow::getId)
+					.containsExactly(grandparent, Math.min(parent, sibling), Math.max(parent, sibling), child);
+			assertThat(rows).extracting(FamilyTreeRow::getDepth).containsExactly(0, 1, 1, 2);
+		}
+
+		FamilyTreeNodeDTO tree = customerService.getFamilyTree(child);
+		assertThat(tree.getId()).isEqualTo(grandparent);
+		assertThat(tree.getFamilyMembers()).extracting(FamilyTreeNodeDTO::getId)
+				.containsExactlyInAnyOrder(parent, sibling);
+		FamilyTreeNodeDTO parentNode = tree.getFamilyMembers().stream()
+				.filter(node -> node.getId().equals(parent))
+				.findFirst()
+				.get();
+		assertThat(parentNode.getFamilyMembers()).extracting(FamilyTreeNodeDTO::getId).containsExactly(child);
+	}
+
+	@Test
+	void stopsAtParentCycle() {
+		// A corrupt cycle: the grandparent becomes the child's family member
+		jdbcTemplate.update("UPDATE customers SET parent_customer_id = ? WHERE id = ?", child, grandparent);
+
+		List<FamilyTreeRow> rows = customerRepository.findHousehold(sibling, 10);
+
+		// Each customer appears once on any path, so the descent ends
+		List<Long> ids = rows.stream().map(FamilyTreeRow::getId).collect(Collectors.toList());
+		assertThat(ids).contains(grandparent, parent, sibling, child);
+		assertThat(rows.stream().mapToInt(FamilyTreeRow::getDepth).max().getAsInt()).isLessThanOrEqualTo(10);
+		assertThat(customerService.getFamilyTree(sibling)).isNotNull();
+	}
+
+	@Test
+	void unknownIdHasNoHousehold() {
+		assertThat(customerRepository.findHousehold(-1L, 10)).isEmpty();
+		assertThatThrownBy(() -> customerService.getFamilyTree(-1L))
+				.isInstanceOf(CustomerNotFoundException.class);
+	}
+
+	private Long idOf(String nicNumber) {
+		return jdbcTemplate.queryForObject("SELECT id FROM customers WHERE nic_number = ?", Long.class, nicNumber);
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Constraint;
+import org.hibernate.mapping.Table;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/** V9 and V10 move the NIC index to the key on databases holding customers from before it existed. */
+class NicKeyMigrationTests {
+
+	private DataSource dataSource = database("nic_key_migration");
+	private JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+	@Test
+	void keysAreBackfilledAndFormatEquivalentDuplicatesAreLeftWithoutOne() {
+		Flyway.configure().dataSource(dataSource).target("8").load().migrate();
+		insertCustomer(1, "853400937V");
+		insertCustomer(2, "198534000937");
+		insertCustomer(3, "199012345015");
+		insertCustomer(4, "not a nic");
+
+		Flyway.configure().dataSource(dataSource).load().migrate();
+
+		Map<Long, Long> keys = new HashMap<>();
+		jdbcTemplate.query("SELECT id, nic_key FROM customers", rs -> {
+			keys.put(rs.getLong("id"), (Long) rs.getObject("nic_key"));
+		});
+		assertThat(keys).containsEntry(1L, 198534000937L)
+				.containsEntry(2L, null)
+				.containsEntry(3L, 199012345015L)
+				.containsEntry(4L, null);
+	}
+
+	@Test
+	void indexNamedByHibernateIsReplaced() {
+		dataSource = database("nic_key_hibernate_schema");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+		// Databases first created by ddl-auto=update carry the NIC index under Hibernate's generated name
+		String hibernateIndex = Constraint.generateName("UK_", new Table("customers"), new Column("nic_number"));
+		jdbcTemplate.execute("ALTER TABLE customers DROP CONSTRAINT uk_customers_nic_number");
+		jdbcTemplate.execute("ALTER TABLE customers ADD CONSTRAINT " + hibernateIndex + " UNIQUE (nic_number)");
+		insertCustomer(1, "199012345015");
+
+		Flyway.configure().dataSource(dataSource).load().migrate();
+
+		assertThat(jdbcTemplate.queryForList("SELECT tc.constraint_name FROM information_schema.table_constraints tc "
+				+ "JOIN information_schema.key_column_usage kcu ON kcu.constraint_name = tc.constraint_name "
+				+ "WHERE tc.table_name = 'customers' AND tc.constraint_type = 'UNIQUE' AND kcu.column_name = 'nic_number'",
+				String.class)).isEmpty();
+		// Uniqueness now rests on the key: the NIC as entered may repeat, the key may not
+		insertCustomer(2, "199012345015");
+		assertThatThrownBy(() -> jdbcTemplate.update("UPDATE customers SET nic_key = 199012345015 WHERE id = 2"))
+				.isInstanceOf(DuplicateKeyException.class);
+	}
+
+	private static DataSource database(String name) {
+		return new DriverManagerDataSource(
+				"jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+	}
+
+	private void insertCustomer(long id, String nicNumber) {
+		jdbcTemplate.update("INSERT INTO customers (id, name, date_of_birth, nic_number) VALUES (?, ?, DATE '1985-12-06', ?)",
+				id, "Customer " + id, nicNumber);
+	}
+}
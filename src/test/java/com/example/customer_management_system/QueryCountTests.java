@@ -0,0 +1,239 @@
+package com.example.customer_management_system;
+
+import static com.example.customer_management_system.QueryCounts.queryCount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.customer_management_system.application.CustomerService;
+import com.example.customer_management_system.application.JsonResponseCache;
+import com.example.customer_management_system.config.QueryCountHeaderAdvice;
+import com.example.customer_management_system.domain.repository.CustomerRepository;
+import com.example.customer_management_system.model.AddressDTO;
+import com.example.customer_management_system.model.BulkUploadResponse;
+import com.example.customer_management_system.model.CustomerChangeDTO;
+import com.example.customer_management_system.model.CustomerDTO;
+import com.example.customer_management_system.model.FamilyMemberDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JsonResponseCache jsonResponseCache;
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long cityId;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("INSERT INTO countries (name) VALUES ('Query Land')");
+		long country = jdbcTemplate.queryForObject("SELECT id FROM countries WHERE name = 'Query Land'", Long.class);
+		jdbcTemplate.update("INSERT INTO cities (name, country_id) VALUES ('Query City', ?)", country);
+		cityId = jdbcTemplate.queryForObject("SELECT id FROM cities WHERE name = 'Query City'", Long.class);
+		// Counts are pinned for cold caches
+		entityManagerFactory.getCache().evictAll();
+		jsonResponseCache.evictReferenceData();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		customerRepository.deleteAll();
+		jdbcTemplate.update("DELETE FROM cities WHERE name = 'Query City'");
+		jdbcTemplate.update("DELETE FROM countries WHERE name = 'Query Land'");
+	}
+
+	@Test
+	void customerEndpointsRunAPinnedNumberOfStatements() throws Exception {
+		CustomerDTO customer = customer("Query Parent", "198003200011");
+		customer.setFamilyMembers(Collections.singletonList(
+				new FamilyMemberDTO("Query Child", "201003200011", LocalDate.of(2010, 2, 1))));
+
+		String created = mockMvc.perform(post("/api/customers")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsBytes(customer)))
+				.andExpect(status().isOk())
+				.andExpect(queryCount(12))
+				.andReturn().getResponse().getContentAsString();
+		long id = objectMapper.readValue(created, CustomerDTO.class).getId();
+		entityManagerFactory.getCache().evictAll();
+
+		mockMvc.perform(get("/api/customers/{id}", id)).andExpect(status().isOk()).andExpect(queryCount(4));
+		// Served from the response cache, then from the second-level cache the first read filled
+		mockMvc.perform(get("/api/customers/{id}", id)).andExpect(status().isOk()).andExpect(queryCount(0));
+		mockMvc.perform(get("/api/customers/nic/{nic}", "198003200011"))
+				.andExpect(status().isOk())
+				.andExpect(queryCount(0));
+		mockMvc.perform(get("/api/customers/{id}/family-tree", id))
+				.andExpect(status().isOk())
+				.andExpect(queryCount(1));
+		mockMvc.perform(get("/api/customers/cities")).andExpect(status().isOk()).andExpect(queryCount(1));
+		mockMvc.perform(get("/api/customers/countries")).andExpect(status().isOk()).andExpect(queryCount(1));
+		mockMvc.perform(get("/api/customers").param("page", "0").param("size", "20"))
+				.andExpect(status().isOk())
+				.andExpect(queryCount(4));
+		mockMvc.perform(get("/api/customers/stats")).andExpect(status().isOk()).andExpect(queryCount(3));
+
+		customer.setName("Query Parent Renamed");
+		customer.setFamilyMembers(null);
+		mockMvc.perform(put("/api/customers/{id}", id)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsBytes(customer)))
+				.andExpect(status().isOk())
+				.andExpect(queryCount(8));
+		mockMvc.perform(post("/api/customers/{id}/retire", id)).andExpect(status().isOk()).andExpect(queryCount(5));
+		// Retiring again finds nothing to change, in the second-level cache
+		mockMvc.perform(post("/api/customers/{id}/retire", id)).andExpect(status().isOk()).andExpect(queryCount(0));
+	}
+
+	@Test
+	void changeFeedRunsOneStatementPerPage() {
+		long head = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM customer_changes", Long.class);
+		customerService.createCustomer(customer("Query Changed", "198003200051"));
+		customerService.createCustomer(customer("Query Changed", "198003200052"));
+		// Past the settle time, so the feed returns them
+		jdbcTemplate.update("UPDATE customer_changes SET changed_at = TIMESTAMPADD(MINUTE, -1, CURRENT_TIMESTAMP(6)) "
+				+ "WHERE id > ?", head);
+		List<CustomerChangeDTO> changes = new ArrayList<>();
+
+		// GET /changes streams its body after the headers are sent, so the stream itself is counted
+		assertThat(QueryCounts.statements(() -> customerService.streamChanges(head, 1000, changes::add))).isEqualTo(1);
+		assertThat(changes).hasSize(2);
+	}
+
+	@Test
+	void bulkUploadEndpointsRunAPinnedNumberOfStatements() throws Exception {
+		MockMultipartFile file = new MockMultipartFile("file", "customers.xlsx", null, headerOnlyWorkbook());
+
+		String queued = mockMvc.perform(multipart("/api/customers/bulk-upload").file(file))
+				.andExpect(status().isOk())
+				.andExpect(queryCount(1))
+				.andReturn().getResponse().getContentAsString();
+		String jobId = objectMapper.readValue(queued, BulkUploadResponse.class).getJobId();
+
+		mockMvc.perform(get("/api/customers/bulk-upload/status/{jobId}", jobId))
+				.andExpect(status().isOk())
+				.andExpect(queryCount(1));
+	}
+
+	@Test
+	void listingDoesNotQueryPerCustomer() throws Exception {
+		for (String nic : Arrays.asList("198003200021", "198003200022")) {
+			mockMvc.perform(post("/api/customers")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(objectMapper.writeValueAsBytes(customer("Query Listed", nic))));
+		}
+		entityManagerFactory.getCache().evictAll();
+		int twoCustomers = statements("/api/customers?size=20");
+
+		for (String nic : Arrays.asList("198003200023", "198003200024", "198003200025")) {
+			mockMvc.perform(post("/api/customers")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(objectMapper.writeValueAsBytes(customer("Query Listed", nic))));
+		}
+		entityManagerFactory.getCache().evictAll();
+
+		assertThat(statements("/api/customers?size=20")).isEqualTo(twoCustomers);
+	}
+
+	@Test
+	void streamDoesNotQueryPerCustomer() throws Exception {
+		for (String nic : Arrays.asList("198003200031", "198003200032")) {
+			customerService.createCustomer(customer("Query Streamed", nic));
+		}
+		entityManagerFactory.getCache().evictAll();
+		List<CustomerDTO> streamed = new ArrayList<>();
+		int twoCustomers = QueryCounts.statements(() -> customerService.streamAllCustomers(streamed::add));
+		assertThat(streamed).hasSize(2);
+
+		for (String nic : Arrays.asList("198003200033", "198003200034", "198003200035")) {
+			customerService.createCustomer(customer("Query Streamed", nic));
+		}
+		entityManagerFactory.getCache().evictAll();
+		streamed.clear();
+
+		assertThat(QueryCounts.statements(() -> customerService.streamAllCustomers(streamed::add)))
+				.isEqualTo(twoCustomers);
+		assertThat(streamed).extracting(CustomerDTO::getMobileNumbers).allSatisfy(numbers -> assertThat(numbers).hasSize(2));
+	}
+
+	@Test
+	void streamReleasesItsTransactionBeforeEachWindowIsConsumed() {
+		for (String nic : Arrays.asList("198003200041", "198003200042")) {
+			customerService.createCustomer(customer("Query Released", nic));
+		}
+		List<Boolean> inTransaction = new ArrayList<>();
+		customerService.streamAllCustomers(
+				customer -> inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive()));
+
+		assertThat(inTransaction).isNotEmpty().containsOnly(false);
+	}
+
+	private int statements(String uri) throws Exception {
+		return Integer.parseInt(mockMvc.perform(get(uri))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(QueryCountHeaderAdvice.HEADER));
+	}
+
+	private static byte[] headerOnlyWorkbook() throws IOException {
+		try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+			Row header = workbook.createSheet("Customers").createRow(0);
+			header.createCell(0).setCellValue("Name");
+			header.createCell(1).setCellValue("Date of Birth");
+			header.createCell(2).setCellValue("NIC Number");
+			workbook.write(out);
+			return out.toByteArray();
+		}
+	}
+
+	private CustomerDTO customer(String name, String nic) {
+		CustomerDTO customer = new CustomerDTO(name, LocalDate.of(1980, 2, 1), nic);
+		customer.setMobileNumbers(Arrays.asList("0771234567", "0711234567"));
+		customer.setAddresses(Collections.singletonList(new AddressDTO(null, "1 Query Rd", null, cityId, null, null)));
+		return customer;
+	}
+}
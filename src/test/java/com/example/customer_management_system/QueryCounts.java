@@ -0,0 +1,44 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.customer_management_system.config.QueryCountHeaderAdvice;
+import com.example.customer_management_system.utils.QueryCounter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Pins the SQL statements an endpoint or a piece of code runs. A failing count points at a new
+ * query, typically an N+1 loop, before it reaches production.
+ */
+public final class QueryCounts {
+
+	private QueryCounts() {
+	}
+
+	/** Expects the request to have run exactly this many statements. MockMvc needs its filters for the count. */
+	public static ResultMatcher queryCount(int expected) {
+		return result -> assertThat(header(result.getResponse().getHeader(QueryCountHeaderAdvice.HEADER)))
+				.as("statements run by %s", result.getRequest().getRequestURI())
+				.isEqualTo(expected);
+	}
+
+	/** Expects the request to have run at most this many statements. */
+	public static ResultMatcher queryCountAtMost(int max) {
+		return result -> assertThat(header(result.getResponse().getHeader(QueryCountHeaderAdvice.HEADER)))
+				.as("statements run by %s", result.getRequest().getRequestURI())
+				.isLessThanOrEqualTo(max);
+	}
+
+	/** @return the statements the work runs on the current thread */
+	public static int statements(Runnable work) {
+		try (QueryCounter.Scope queries = QueryCounter.start()) {
+			work.run();
+			return queries.statements();
+		}
+	}
+
+	private static int header(String value) {
+		assertThat(value).as(QueryCountHeaderAdvice.HEADER + " header").isNotNull();
+		return Integer.parseInt(value);
+	}
+}
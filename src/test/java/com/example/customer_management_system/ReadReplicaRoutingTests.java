@@ -0,0 +1,88 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.customer_management_system.config.ReadReplicaRoutingDataSource;
+import com.example.customer_management_system.config.ReplicaLagMonitor;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Routing between two embedded H2 databases standing in for the primary and the replica. */
+class ReadReplicaRoutingTests {
+
+	private final DataSource primary = database("primary");
+	private final DataSource replica = database("replica");
+
+	@Test
+	void readOnlyTransactionsUseReplica() {
+		DataSource routing = routing(monitor("SELECT 0 AS Seconds_Behind_Master"));
+
+		assertThat(serverIn(routing, true)).isEqualTo("replica");
+		assertThat(serverIn(routing, false)).isEqualTo("primary");
+		assertThat(new JdbcTemplate(routing).queryForObject("SELECT name FROM server", String.class))
+				.isEqualTo("primary");
+	}
+
+	@Test
+	void laggingReplicaFallsBackToPrimary() {
+		DataSource routing = routing(monitor("SELECT 120 AS Seconds_Behind_Master"));
+
+		assertThat(serverIn(routing, true)).isEqualTo("primary");
+	}
+
+	@Test
+	void stoppedReplicationFallsBackToPrimary() {
+		DataSource routing = routing(monitor("SELECT CAST(NULL AS INT) AS Seconds_Behind_Master"));
+
+		assertThat(serverIn(routing, true)).isEqualTo("primary");
+	}
+
+	@Test
+	void unreachableReplicaFallsBackToPrimary() {
+		DataSource routing = routing(monitor("SELECT * FROM missing_table"));
+
+		assertThat(serverIn(routing, true)).isEqualTo("primary");
+	}
+
+	private ReplicaLagMonitor monitor(String lagQuery) {
+		ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, lagQuery, Duration.ofSeconds(30));
+		monitor.checkLag();
+		return monitor;
+	}
+
+	private DataSource routing(ReplicaLagMonitor monitor) {
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(ReadReplicaRoutingDataSource.Route.PRIMARY, primary);
+		targets.put(ReadReplicaRoutingDataSource.Route.REPLICA, replica);
+		ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(monitor);
+		routing.setTargetDataSources(targets);
+		routing.setDefaultTargetDataSource(primary);
+		routing.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(routing);
+	}
+
+	private String serverIn(DataSource dataSource, boolean readOnly) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		transactionTemplate.setReadOnly(readOnly);
+		return transactionTemplate.execute(status ->
+				new JdbcTemplate(dataSource).queryForObject("SELECT name FROM server", String.class));
+	}
+
+	private static DataSource database(String name) {
+		DataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS server (name VARCHAR(20))");
+		jdbcTemplate.update("DELETE FROM server");
+		jdbcTemplate.update("INSERT INTO server (name) VALUES (?)", name);
+		return dataSource;
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.customer_management_system.application.CustomerService;
+import com.example.customer_management_system.application.CustomerStatsService;
+import com.example.customer_management_system.application.RetentionService;
+import com.example.customer_management_system.domain.repository.CustomerRepository;
+import com.example.customer_management_system.model.CustomerDTO;
+import com.example.customer_management_system.model.FamilyMemberDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {"retention.batch-size=2", "retention.batch-pause=0ms"})
+@ActiveProfiles("test")
+class RetentionTests {
+
+	@Autowired
+	private RetentionService retentionService;
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerStatsService customerStatsService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		// Other tests delete customers behind the counters' back
+		customerStatsService.reconcile();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		customerRepository.deleteAll();
+		jdbcTemplate.update("DELETE FROM bulk_processing_sheets WHERE sheet_key LIKE 'retention-%'");
+		jdbcTemplate.update("DELETE FROM bulk_processing WHERE job_id LIKE 'retention-%'");
+		customerStatsService.reconcile();
+	}
+
+	@Test
+	void archivesRetiredCustomersInBatches() {
+		List<Long> retired = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			CustomerDTO customer = new CustomerDTO("Retired " + i, LocalDate.of(1950, 1, i), "19500010000" + i);
+			customer.setMobileNumbers(Collections.singletonList("077123456" + i));
+			retired.add(customerService.retireCustomer(customerService.createCustomer(customer).getId()).getId());
+		}
+		CustomerDTO parent = new CustomerDTO("Retired Parent", LocalDate.of(1950, 2, 1), "195003200001");
+		parent.setFamilyMembers(Collections.singletonList(
+				new FamilyMemberDTO("Active Child", "198003200001", LocalDate.of(1980, 2, 1))));
+		Long parentId = customerService.retireCustomer(customerService.createCustomer(parent).getId()).getId();
+		jdbcTemplate.update("UPDATE customers SET retired_at = ? WHERE retired_at IS NOT NULL",
+				Timestamp.valueOf(LocalDateTime.now().minusYears(2)));
+		long total = customerStatsService.getStats().getTotalCustomers();
+
+		assertThat(retentionService.archiveCustomers()).isEqualTo(3);
+
+		assertThat(customerRepository.findAllById(retired)).isEmpty();
+		// A parent waits for its family members
+		assertThat(customerRepository.findById(parentId)).isPresent();
+		assertThat(count("SELECT COUNT(*) FROM customers_archive WHERE name LIKE 'Retired %'")).isEqualTo(3);
+		assertThat(count("SELECT COUNT(*) FROM mobile_numbers_archive WHERE mobile_number LIKE '077123456%'"))
+				.isEqualTo(3);
+		assertThat(count("SELECT COUNT(*) FROM customer_changes WHERE change_type = 'ARCHIVED' AND customer_id IN ("
+				+ retired.get(0) + ", " + retired.get(1) + ", " + retired.get(2) + ")")).isEqualTo(3);
+
+		assertThat(customerStatsService.getStats().getTotalCustomers()).isEqualTo(total - 3);
+		double corrections = meterRegistry.counter("customer.stats.corrections").count();
+		customerStatsService.reconcile();
+		assertThat(meterRegistry.counter("customer.stats.corrections").count()).isEqualTo(corrections);
+	}
+
+	@Test
+	void archivesOnlyOldFinishedBulkJobs() {
+		LocalDateTime old = LocalDateTime.now().minusDays(200);
+		long finished = job("retention-finished", "COMPLETED", old);
+		long running = job("retention-running", "PROCESSING", old);
+		long recent = job("retention-recent", "COMPLETED", LocalDateTime.now());
+		jdbcTemplate.update(
+				"INSERT INTO bulk_processing_sheets (bulk_processing_id, sheet_key, success_records) "
+						+ "VALUES (?, 'retention-sheet', 10)", finished);
+
+		assertThat(retentionService.archiveBulkJobs()).isGreaterThanOrEqualTo(1);
+
+		assertThat(count("SELECT COUNT(*) FROM bulk_processing WHERE id = " + finished)).isZero();
+		assertThat(count("SELECT COUNT(*) FROM bulk_processing WHERE id IN (" + running + ", " + recent + ")"))
+				.isEqualTo(2);
+		assertThat(count("SELECT COUNT(*) FROM bulk_processing_archive WHERE id = " + finished)).isEqualTo(1);
+		assertThat(count("SELECT COUNT(*) FROM bulk_processing_sheets_archive WHERE bulk_processing_id = " + finished))
+				.isEqualTo(1);
+	}
+
+	private long job(String jobId, String status, LocalDateTime updatedAt) {
+		Timestamp time = Timestamp.valueOf(updatedAt);
+		jdbcTemplate.update(
+				"INSERT INTO bulk_processing (job_id, status, success_records, created_at, updated_at) "
+						+ "VALUES (?, ?, 10, ?, ?)", jobId, status, time, time);
+		return count("SELECT id FROM bulk_processing WHERE job_id = '" + jobId + "'");
+	}
+
+	private long count(String sql) {
+		return jdbcTemplate.queryForObject(sql, Long.class);
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.customer_management_system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Checks with EXPLAIN that the hot queries are served by the indexes from the migrations. */
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemaIndexUsageTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void familyMembersAreLoadedByParentIndex() {
+		assertThat(explain("SELECT * FROM customers WHERE parent_customer_id = 1"))
+				.contains("idx_customers_parent_customer_id");
+	}
+
+	@Test
+	void nicLookupsUseKeyIndex() {
+		assertThat(explain("SELECT id FROM customers WHERE nic_key = 199012345015"))
+				.contains("uk_customers_nic_key");
+	}
+
+	@Test
+	void mobileNumbersAreLoadedByCustomerIndex() {
+		assertThat(explain("SELECT * FROM mobile_numbers WHERE customer_id = 1"))
+				.contains("idx_mobile_numbers_customer_id");
+	}
+
+	@Test
+	void addressesAreLoadedByCustomerIndex() {
+		assertThat(explain("SELECT * FROM addresses WHERE customer_id = 1"))
+				.contains("idx_addresses_customer_id");
+	}
+
+	@Test
+	void listingSortedByCreatedAtUsesSortIndex() {
+		assertThat(explain("SELECT * FROM customers ORDER BY created_at LIMIT 10"))
+				.contains("idx_customers_created_at")
+				.contains("index sorted");
+	}
+
+	@Test
+	void listingSortedByNameUsesCoveringIndex() {
+		assertThat(explain("SELECT id, name, date_of_birth, nic_number, created_at, updated_at, parent_customer_id"
+				+ " FROM customers ORDER BY name LIMIT 10"))
+				.contains("idx_customers_listing_name")
+				.contains("index sorted");
+	}
+
+	private String explain(String sql) {
+		return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase();
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.customer_management_system.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveBatchSizeTests {
+
+	private final AdaptiveBatchSize batchSize = new AdaptiveBatchSize(1000, 100, 1200, 100, Duration.ofMillis(500));
+
+	@Test
+	void fastCommitsGrowTheSizeUpToTheMaximum() {
+		for (int i = 0; i < 5; i++) {
+			batchSize.record(1000, TimeUnit.MILLISECONDS.toNanos(100), false);
+		}
+
+		assertThat(batchSize.current()).isEqualTo(1200);
+	}
+
+	@Test
+	void slowOrFailedCommitsHalveTheSizeDownToTheMinimum() {
+		batchSize.record(1000, TimeUnit.MILLISECONDS.toNanos(900), false);
+		assertThat(batchSize.current()).isEqualTo(500);
+
+		batchSize.record(500, TimeUnit.MILLISECONDS.toNanos(10), true);
+		assertThat(batchSize.current()).isEqualTo(250);
+
+		for (int i = 0; i < 5; i++) {
+			batchSize.record(250, TimeUnit.SECONDS.toNanos(2), false);
+		}
+		assertThat(batchSize.current()).isEqualTo(100);
+	}
+
+	@Test
+	void shortChunksAreJudgedAtTheCurrentSize() {
+		// 50 rows in 40ms projects to 800ms for a full chunk of 1000
+		batchSize.record(50, TimeUnit.MILLISECONDS.toNanos(40), false);
+
+		assertThat(batchSize.current()).isEqualTo(500);
+	}
+
+	@Test
+	void commitsNearTheTargetKeepTheSize() {
+		batchSize.record(1000, TimeUnit.MILLISECONDS.toNanos(450), false);
+
+		assertThat(batchSize.current()).isEqualTo(1000);
+	}
+}
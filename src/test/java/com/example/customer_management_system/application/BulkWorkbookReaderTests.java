@@ -0,0 +1,83 @@
+package com.example.customer_management_system.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkWorkbookReaderTests {
+
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		file = Files.createTempFile("bulk-reader-", ".xlsx");
+	}
+
+	@AfterEach
+	void cleanUp() throws Exception {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	void readsEverySheetAsPlainCellText() throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+			CellStyle date = workbook.createCellStyle();
+			date.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy"));
+
+			Sheet customers = workbook.createSheet("Customers");
+			Row header = customers.createRow(0);
+			header.createCell(0).setCellValue("Name");
+			header.createCell(1).setCellValue("Date of Birth");
+			header.createCell(2).setCellValue("NIC Number");
+			Row row = customers.createRow(2);
+			row.createCell(0).setCellValue("Nimal Perera");
+			row.createCell(1).setCellValue(LocalDate.of(1991, 2, 3));
+			row.getCell(1).setCellStyle(date);
+			// Typed as a number, which Excel would show as 1.99103E+11
+			row.createCell(2).setCellValue(199103400123L);
+			row.createCell(4).setCellValue("gap before");
+
+			workbook.createSheet("Empty");
+			workbook.write(out);
+		}
+
+		List<String> events = new ArrayList<>();
+		BulkWorkbookReader.read(file, new BulkWorkbookReader.RowHandler() {
+			@Override
+			public void startSheet(int sheetIndex, String sheetName) {
+				events.add(sheetIndex + ":" + sheetName);
+			}
+
+			@Override
+			public void row(int rowIndex, List<String> cells) {
+				events.add(rowIndex + "=" + cells);
+			}
+
+			@Override
+			public void endSheet() {
+				events.add("end");
+			}
+		});
+
+		assertThat(events).containsExactly(
+				"0:Customers",
+				"0=" + Arrays.asList("Name", "Date of Birth", "NIC Number"),
+				"2=" + Arrays.asList("Nimal Perera", "1991-02-03", "199103400123", null, "gap before"),
+				"end",
+				"1:Empty",
+				"end");
+	}
+}
@@ -0,0 +1,105 @@
+package com.example.customer_management_system.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.example.customer_management_system.config.ReplicaLagMonitor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+class JsonResponseCacheTests {
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void customerIsServedFromTheCacheUntilEvicted() {
+		JsonResponseCache cache = cache(withoutReplica(), Duration.ofMinutes(5));
+
+		load(cache);
+		load(cache);
+		assertThat(loads).hasValue(1);
+
+		cache.evictCustomers(Collections.singletonList(1L));
+		load(cache);
+		load(cache);
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void customerExpiresAfterTtl() throws InterruptedException {
+		JsonResponseCache cache = cache(withoutReplica(), Duration.ofMillis(20));
+
+		load(cache);
+		Thread.sleep(50);
+		load(cache);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void customerEvictedWithinReplicaWindowIsNotCached() {
+		DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+		beans.registerSingleton("replicaLagMonitor", mock(ReplicaLagMonitor.class));
+		JsonResponseCache cache = cache(beans.getBeanProvider(ReplicaLagMonitor.class), Duration.ofMinutes(5));
+
+		load(cache);
+		load(cache);
+		assertThat(loads).hasValue(1);
+
+		// The replica may still hold the old row, so each load goes to the database
+		cache.evictCustomers(Collections.singletonList(1L));
+		load(cache);
+		load(cache);
+		assertThat(loads).hasValue(3);
+
+		// Other customers are unaffected
+		cache.customer(2L, null, () -> "other");
+		cache.customer(2L, null, () -> {
+			throw new AssertionError("customer 2 should be cached");
+		});
+	}
+
+	@Test
+	void gzipIsOnlyServedWhenTheClientAcceptsIt() {
+		assertThat(JsonResponseCache.acceptsGzip("gzip, deflate, br")).isTrue();
+		assertThat(JsonResponseCache.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+		assertThat(JsonResponseCache.acceptsGzip("x-gzip")).isTrue();
+		assertThat(JsonResponseCache.acceptsGzip("*")).isTrue();
+
+		assertThat(JsonResponseCache.acceptsGzip(null)).isFalse();
+		assertThat(JsonResponseCache.acceptsGzip("identity")).isFalse();
+		assertThat(JsonResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+		assertThat(JsonResponseCache.acceptsGzip("gzip ; q=0.000, deflate")).isFalse();
+		assertThat(JsonResponseCache.acceptsGzip("*;q=1, gzip;q=0")).isFalse();
+		assertThat(JsonResponseCache.acceptsGzip("x-gzip-none, nogzip")).isFalse();
+	}
+
+	@Test
+	void responseIsEncodedPerAcceptEncoding() {
+		JsonResponseCache cache = cache(withoutReplica(), Duration.ofMinutes(5));
+
+		assertThat(cache.customer(1L, "gzip", () -> "customer").getHeaders().getFirst("Content-Encoding"))
+				.isEqualTo("gzip");
+		assertThat(cache.customer(1L, "gzip;q=0", () -> "customer").getHeaders().getFirst("Content-Encoding"))
+				.isNull();
+	}
+
+	private static ObjectProvider<ReplicaLagMonitor> withoutReplica() {
+		return new DefaultListableBeanFactory().getBeanProvider(ReplicaLagMonitor.class);
+	}
+
+	private JsonResponseCache cache(ObjectProvider<ReplicaLagMonitor> replica, Duration customerTtl) {
+		return new JsonResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), replica, 100, customerTtl,
+				Duration.ofHours(1), Duration.ofMinutes(1));
+	}
+
+	private void load(JsonResponseCache cache) {
+		cache.customer(1L, null, () -> "customer " + loads.incrementAndGet());
+	}
+}
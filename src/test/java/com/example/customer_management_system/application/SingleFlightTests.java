@@ -0,0 +1,98 @@
+package com.example.customer_management_system.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.customer_management_system.utils.CustomerNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTests {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("id", meterRegistry);
+	private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+	@AfterEach
+	void stopCallers() {
+		callers.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallsForTheSameKeyShareOneLoad() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			await(release);
+			return "customer";
+		}), callers);
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(
+				() -> singleFlight.execute(1L, () -> "second load"), callers);
+		// The load finishes only once the second caller has joined it
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (count("coalesced") == 0 && System.nanoTime() < deadline) {
+			Thread.yield();
+		}
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("customer");
+		assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("customer");
+		assertThat(loads).hasValue(1);
+		assertThat(count("executed")).isEqualTo(1);
+		assertThat(count("coalesced")).isEqualTo(1);
+	}
+
+	@Test
+	void failuresReachTheCallerAndAreNotKept() {
+		assertThatThrownBy(() -> singleFlight.execute(1L, () -> {
+			throw new CustomerNotFoundException("Customer not found with id: 1");
+		})).isInstanceOf(CustomerNotFoundException.class);
+
+		assertThat(singleFlight.execute(1L, () -> "customer")).isEqualTo("customer");
+		assertThat(count("executed")).isEqualTo(2);
+	}
+
+	@Test
+	void forgottenLoadsAreNotJoined() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> stale = CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+			loading.countDown();
+			await(release);
+			return "before write";
+		}), callers);
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		singleFlight.forget(Collections.singletonList(1L));
+
+		assertThat(singleFlight.execute(1L, () -> "after write")).isEqualTo("after write");
+		release.countDown();
+		assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+	}
+
+	private double count(String result) {
+		return meterRegistry.counter("customer.lookups", "lookup", "id", "result", result).count();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
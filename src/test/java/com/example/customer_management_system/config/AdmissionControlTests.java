@@ -0,0 +1,121 @@
+package com.example.customer_management_system.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class AdmissionControlTests {
+
+	@Test
+	void limitShrinksWhenLatencyRisesAndGrowsBackWhenItRecovers() {
+		ConcurrencyLimit limit = new ConcurrencyLimit(20, 1, 100);
+		for (int i = 0; i < 100; i++) {
+			limit.release(TimeUnit.MILLISECONDS.toNanos(10), 20);
+		}
+		int settled = limit.limit();
+		assertThat(settled).isGreaterThan(20);
+
+		for (int i = 0; i < 50; i++) {
+			limit.release(TimeUnit.MILLISECONDS.toNanos(200), limit.limit());
+		}
+		int overloaded = limit.limit();
+		assertThat(overloaded).isLessThan(settled);
+
+		for (int i = 0; i < 200; i++) {
+			limit.release(TimeUnit.MILLISECONDS.toNanos(10), limit.limit());
+		}
+		assertThat(limit.limit()).isGreaterThan(overloaded);
+	}
+
+	@Test
+	void requestsOverTheLimitAreRejected() {
+		ConcurrencyLimit limit = new ConcurrencyLimit(2, 1, 2);
+
+		assertThat(limit.tryAcquire()).isEqualTo(1);
+		assertThat(limit.tryAcquire()).isEqualTo(2);
+		assertThat(limit.tryAcquire()).isEqualTo(-1);
+		limit.release(TimeUnit.MILLISECONDS.toNanos(10), 2);
+		assertThat(limit.tryAcquire()).isEqualTo(2);
+	}
+
+	@Test
+	void uploadsOverTheirLimitGet503WithRetryAfterWhileReadsAndValidationsPass() throws Exception {
+		AdmissionControlFilter filter = new AdmissionControlFilter(
+				new SimpleMeterRegistry(), true, Duration.ofSeconds(2), 10, 10, 10, 10, 1, 1, 4, 4);
+		// The first upload is still running when the second upload and a dry run arrive
+		MockHttpServletResponse second = new MockHttpServletResponse();
+		MockHttpServletResponse validation = new MockHttpServletResponse();
+		MockFilterChain firstChain = new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+				filter.doFilter(new MockHttpServletRequest("POST", "/api/customers/bulk-upload"), second,
+						new MockFilterChain());
+				MockHttpServletRequest dryRun = new MockHttpServletRequest("POST", "/api/customers/bulk-upload");
+				dryRun.setQueryString("mode=validate");
+				filter.doFilter(dryRun, validation, new MockFilterChain());
+			}
+		};
+		filter.doFilter(new MockHttpServletRequest("POST", "/api/customers/bulk-upload"), new MockHttpServletResponse(),
+				firstChain);
+
+		assertThat(second.getStatus()).isEqualTo(503);
+		assertThat(second.getHeader("Retry-After")).isEqualTo("2");
+		assertThat(validation.getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse read = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/customers/1"), read, new MockFilterChain());
+		assertThat(read.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void asyncStreamHoldsItsReadSlotUntilItCompletes() throws Exception {
+		AdmissionControlFilter filter = new AdmissionControlFilter(
+				new SimpleMeterRegistry(), true, Duration.ofSeconds(1), 1, 1, 10, 10, 1, 1, 4, 4);
+		MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/api/async/customers/stream");
+		stream.setAsyncSupported(true);
+		filter.doFilter(stream, new MockHttpServletResponse(), new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response) {
+				request.startAsync();
+			}
+		});
+
+		MockHttpServletResponse read = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/customers/1"), read, new MockFilterChain());
+		assertThat(read.getStatus()).isEqualTo(503);
+
+		stream.getAsyncContext().complete();
+		MockHttpServletResponse afterStream = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/async/customers/1"), afterStream, new MockFilterChain());
+		assertThat(afterStream.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void onlyCustomerPathsAreAdmitted() throws Exception {
+		AdmissionControlFilter filter = new AdmissionControlFilter(
+				new SimpleMeterRegistry(), true, Duration.ofSeconds(1), 1, 1, 10, 10, 1, 1, 4, 4);
+		MockHttpServletRequest held = new MockHttpServletRequest("GET", "/api/customers");
+		held.setAsyncSupported(true);
+		filter.doFilter(held, new MockHttpServletResponse(), new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response) {
+				request.startAsync();
+			}
+		});
+
+		// The read limit is taken, yet a path that merely starts with the same text is not limited
+		MockHttpServletResponse other = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/customersX"), other, new MockFilterChain());
+		assertThat(other.getStatus()).isEqualTo(200);
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.customer_management_system.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class NicCodecTests {
+
+	@Test
+	void oldAndNewSpellingsShareAKey() {
+		assertThat(NicCodec.encode("853400937V")).isEqualTo(198534000937L);
+		assertThat(NicCodec.encode("198534000937")).isEqualTo(198534000937L);
+		assertThat(NicCodec.encode(" 853400937x ")).isEqualTo(198534000937L);
+		assertThat(NicCodec.format(198534000937L)).isEqualTo("198534000937");
+	}
+
+	@Test
+	void normalizingKeepsTheFormatButDropsWhitespaceAndCase() {
+		assertThat(NicCodec.normalize(" 8534 00937v")).isEqualTo("853400937V");
+		assertThat(NicCodec.normalize("1985 3400 0937")).isEqualTo("198534000937");
+	}
+
+	@Test
+	void malformedNicsAreRejected() {
+		assertThatThrownBy(() -> NicCodec.encode("85340093V")).isInstanceOf(InvalidNicException.class);
+		assertThatThrownBy(() -> NicCodec.encode("853400937A")).isInstanceOf(InvalidNicException.class);
+		assertThatThrownBy(() -> NicCodec.encode("19853400093X")).isInstanceOf(InvalidNicException.class);
+		assertThatThrownBy(() -> NicCodec.encode(null)).isInstanceOf(InvalidNicException.class);
+	}
+}